@@ -18,10 +18,6 @@ import org.jboss.logging.MessageLogger;
 public interface AeroGearLogger extends BasicLogger {
     AeroGearLogger LOGGER = Logger.getMessageLogger(AeroGearLogger.class, AeroGearLogger.class.getPackage().getName());
 
-    @LogMessage(level = Logger.Level.ERROR)
-    @Message(id = 2, value = "oops, multivalued params not supported yet")
-    void multivaluedParamsUnsupported();
-
     @LogMessage(level = Logger.Level.TRACE)
     @Message(id = 3, value = "method: '%s', requested URI: '%s'")
     void requestedRoute(RequestMethod method, String requestURI);
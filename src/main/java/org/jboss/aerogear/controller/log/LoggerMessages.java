@@ -10,6 +10,7 @@ import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responders;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
 import org.jboss.logging.Logger;
 import org.jboss.logging.Message;
@@ -34,7 +35,7 @@ public interface LoggerMessages {
     RuntimeException routeNotFound(RequestMethod method, String requestURI, Set<String> acceptHeaders);
     
     @LogMessage(level = Logger.Level.ERROR)
-    @Message(id = 9, value = "oops, multivalued params not supported yet. Parameter name: '%s'")
+    @Message(id = 9, value = "Parameter: '%s' has multiple values, use an array or List parameter to bind all of them")
     RuntimeException multivaluedParamsUnsupported(String parameterName);
     
     @LogMessage(level = Logger.Level.ERROR)
@@ -48,4 +49,16 @@ public interface LoggerMessages {
     @LogMessage(level = Logger.Level.ERROR)
     @Message(id = 12, value = "No Consumer found for Parameter: '%s'. The registered Consumers were: '%s'. Please add a Consumer for one the media types supported by the route: %s.")
     RuntimeException noConsumerForMediaType(Parameter<?> parameter, Collection<Consumer> consumers, Set<String> supportedMediaTypes);
+    
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 13, value = "Could not convert value: '%s' for Parameter: '%s'")
+    RuntimeException parameterConversionFailed(@Cause Throwable cause, String value, Parameter<?> parameter);
+    
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 14, value = "No CDI bean was found for target endpoint class: '%s'")
+    RuntimeException noBeanForTargetClass(Class<?> targetClass);
+    
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 15, value = "Media type: '%s' requires jackson-smile, which was not found on the classpath")
+    RuntimeException smileNotAvailable(String mediaType);
 }
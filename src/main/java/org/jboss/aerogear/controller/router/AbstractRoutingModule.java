@@ -1,11 +1,16 @@
 package org.jboss.aerogear.controller.router;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.jboss.aerogear.controller.router.parameter.Converter;
+import org.jboss.aerogear.controller.router.parameter.Converters;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.jboss.aerogear.controller.router.parameter.Parameters;
 
+import com.google.common.base.Defaults;
+
 /**
  * AbstractRoutingModule simplifies the process of configuring Routes by implementing
  * {@link RoutingModule} and providing helper methods.
@@ -76,6 +81,64 @@ public abstract class AbstractRoutingModule implements RoutingModule {
         return null;
     }
     
+    /**
+     * Adds a request parameter whose value will be converted to the passed-in type, for example 
+     * {@code find(param("id", long.class))}. Supported types are the ones for which {@link Converters} 
+     * provides a {@link Converter}.
+     * 
+     * @param id the name of the parameter.
+     * @param type the type of the target endpoint method parameter.
+     * @return {@code T} the default value for the type, which is only used while recording the route.
+     * @throws IllegalArgumentException if there is no {@link Converter} for the type.
+     */
+    public <T> T param(String id, Class<T> type) {
+        addParameter(Parameters.param(id, type));
+        return Defaults.defaultValue(type);
+    }
+    
+    /**
+     * Adds a request parameter whose value will be converted to the passed-in type, and which falls back to the 
+     * passed-in default value if the request does not contain the parameter, for example 
+     * {@code find(param("page", 1, int.class))}.
+     * 
+     * @param id the name of the parameter.
+     * @param defaultValue the value used if the request does not contain the parameter.
+     * @param type the type of the target endpoint method parameter.
+     * @return {@code T} the default value for the type, which is only used while recording the route.
+     * @throws IllegalArgumentException if there is no {@link Converter} for the type.
+     */
+    public <T> T param(String id, T defaultValue, Class<T> type) {
+        addParameter(Parameters.param(id, defaultValue, type));
+        return Defaults.defaultValue(type);
+    }
+    
+    /**
+     * Adds a request parameter whose values will all be converted to the passed-in element type and bound to a 
+     * {@code List}, for example {@code find(paramList("id", Long.class))} for '?id=1&id=2'. To bind to an array
+     * instead, use {@link #param(String, Class)} with an array type, for example {@code param("id", long[].class)}.
+     * 
+     * @param id the name of the parameter.
+     * @param elementType the type of the elements of the list.
+     * @return {@code List<E>} always null, it is only used while recording the route.
+     */
+    public <E> List<E> paramList(String id, Class<E> elementType) {
+        addParameter(Parameters.paramList(id, elementType));
+        return null;
+    }
+    
+    /**
+     * Adds an entity parameter that gives the target endpoint method an {@code Iterator} over the elements of the
+     * request body, for example {@code save(paramIterator(Car.class))} for a JSON array of cars. The elements are 
+     * unmarshalled one at a time as the Iterator is advanced.
+     * 
+     * @param elementType the type of the elements.
+     * @return {@code Iterator<E>} always null, it is only used while recording the route.
+     */
+    public <E> Iterator<E> paramIterator(Class<E> elementType) {
+        addParameter(Parameters.paramIterator(elementType));
+        return null;
+    }
+    
     private void addParameter(final Parameter<?> parameter) {
         current().addParameter(parameter);
     }
@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * AcceptHeader is the parsed form of the HTTP Accept header of a request.
+ * </p>
+ * The header is parsed once per request. Each media range is normalized, see {@link MediaTypeSet}, and its quality
+ * value ('q' parameter) is extracted. The media types known to the application, which are the media types that 
+ * the routes produce, are then resolved to their interned ids, and each id is assigned the quality of the most 
+ * specific media range that matches it. An explicit media type takes precedence over a range like 'application/*', 
+ * which in turn takes precedence over '*&#47;*'. Media types with a quality of zero are not acceptable.
+ * </p>
+ * This allows determining whether a route can serve the request with a bitwise intersection, and allows 
+ * the media types a route produces to be returned in the order preferred by the client.
+ */
+public final class AcceptHeader {
+    
+    /**
+     * An AcceptHeader for requests without an Accept header, which accepts any media type.
+     */
+    public static final AcceptHeader NONE = new AcceptHeader(Collections.<Range>emptyList());
+    
+    private final Set<String> mediaTypes;
+    private final int[] preferred;
+    private final BitSet acceptable = new BitSet();
+    private final BitSet excluded = new BitSet();
+    private final boolean acceptsAny;
+    private final boolean empty;
+    private final int knownMediaTypes;
+    private final int hashCode;
+    
+    private AcceptHeader(final List<Range> ranges) {
+        empty = ranges.isEmpty();
+        final List<Range> ordered = new ArrayList<Range>(ranges);
+        Collections.sort(ordered);
+        final Set<String> mediaTypes = new LinkedHashSet<String>();
+        for (Range range : ordered) {
+            if (range.quality > 0) {
+                mediaTypes.add(range.mediaType);
+            }
+        }
+        this.mediaTypes = Collections.unmodifiableSet(mediaTypes);
+        
+        knownMediaTypes = MediaTypeSet.nameCount();
+        final float[] qualities = new float[knownMediaTypes];
+        final int[] positions = new int[qualities.length];
+        Arrays.fill(qualities, -1);
+        for (Range range : ranges) {
+            if (range.isWildcardType()) {
+                continue;
+            }
+            final int id = MediaTypeSet.idOf(range.mediaType);
+            if (id != -1 && id < qualities.length && qualities[id] < 0) {
+                qualities[id] = range.quality;
+                positions[id] = range.position;
+            }
+        }
+        boolean acceptsAny = false;
+        for (Range range : ranges) {
+            if (range.isWildcardType()) {
+                acceptsAny = acceptsAny || range.quality > 0;
+            } else if (range.isWildcardSubtype()) {
+                final BitSet ids = MediaTypeSet.idsOfType(MediaTypeSet.typeOf(range.mediaType));
+                for (int id = ids.nextSetBit(0); id >= 0 && id < qualities.length; id = ids.nextSetBit(id + 1)) {
+                    if (qualities[id] < 0) {
+                        qualities[id] = range.quality;
+                        positions[id] = range.position;
+                    }
+                }
+            }
+        }
+        this.acceptsAny = acceptsAny;
+        
+        final List<Integer> preferred = new ArrayList<Integer>();
+        for (int id = 0; id < qualities.length; id++) {
+            if (qualities[id] > 0) {
+                acceptable.set(id);
+                preferred.add(id);
+            } else if (qualities[id] == 0) {
+                excluded.set(id);
+            }
+        }
+        Collections.sort(preferred, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                final int byQuality = Float.compare(qualities[b], qualities[a]);
+                return byQuality != 0 ? byQuality : positions[a] - positions[b];
+            }
+        });
+        this.preferred = new int[preferred.size()];
+        for (int i = 0; i < this.preferred.length; i++) {
+            this.preferred[i] = preferred.get(i);
+        }
+        hashCode = 31 * (31 * (31 * (empty ? 1 : 0) + (acceptsAny ? 1 : 0)) + acceptable.hashCode()) + excluded.hashCode();
+    }
+    
+    /**
+     * Parses the passed-in value of an HTTP Accept header.
+     * 
+     * @param header the value of the Accept header, for example 'text/html, application/json;q=0.9, *&#47;*;q=0.1'.
+     * @return {@link AcceptHeader} the parsed header, or {@link #NONE} if the header was {@code null} or empty.
+     */
+    public static AcceptHeader parse(final String header) {
+        if (header == null) {
+            return NONE;
+        }
+        final List<Range> ranges = new ArrayList<Range>();
+        for (String range : Splitter.on(',').trimResults().omitEmptyStrings().split(header)) {
+            ranges.add(new Range(MediaTypeSet.normalize(range), quality(range), ranges.size()));
+        }
+        return ranges.isEmpty() ? NONE : new AcceptHeader(ranges);
+    }
+    
+    /**
+     * Creates an AcceptHeader from the passed-in media ranges, using the shared {@link AcceptHeaderCache}.
+     * 
+     * @param mediaRanges the media ranges, which may contain quality values.
+     * @return {@link AcceptHeader} for the media ranges, or {@link #NONE} if there are no media ranges.
+     */
+    public static AcceptHeader of(final Collection<String> mediaRanges) {
+        return mediaRanges.isEmpty() ? NONE : AcceptHeaderCache.getInstance().get(Joiner.on(',').join(mediaRanges));
+    }
+    
+    private static float quality(final String range) {
+        for (String parameter : Splitter.on(';').trimResults().split(range)) {
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Math.max(0, Math.min(1, Float.parseFloat(parameter.substring(2).trim())));
+                } catch (final NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    /**
+     * Determines if the request did not specify an Accept header, in which case any media type is acceptable.
+     * 
+     * @return {@code true} if there was no Accept header, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+    
+    /**
+     * Determines if the Accept header contains '*&#47;*' with a quality greater than zero.
+     * 
+     * @return {@code true} if any media type is accepted, otherwise {@code false}.
+     */
+    public boolean acceptsAny() {
+        return acceptsAny;
+    }
+    
+    /**
+     * Returns the acceptable media ranges of this Accept header, in the order preferred by the client.
+     * 
+     * @return {@code Set<String>} the normalized media ranges with a quality greater than zero, 
+     * or an empty set if there was no Accept header.
+     */
+    public Set<String> getMediaTypes() {
+        return mediaTypes;
+    }
+    
+    /**
+     * Determines if any of the passed-in media types is acceptable.
+     * 
+     * @param mediaTypes the media types, for example the media types that a {@link Route} produces.
+     * @return {@code true} if this Accept header is empty or accepts at least one of the media types.
+     */
+    public boolean accepts(final MediaTypeSet mediaTypes) {
+        if (empty || acceptable.intersects(mediaTypes.bits())) {
+            return true;
+        }
+        if (acceptsAny) {
+            for (int id : mediaTypes.ids()) {
+                if (!excluded.get(id)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the passed-in media types that were explicitly accepted, either by name or by a range like 
+     * 'application/*', in the order preferred by the client. Media types that are only accepted by '*&#47;*' 
+     * are not returned, see {@link #acceptsAny()}.
+     * 
+     * @param mediaTypes the media types, for example the media types that a {@link Route} produces.
+     * @return {@code List<String>} the accepted media types, highest quality first.
+     */
+    public List<String> negotiate(final MediaTypeSet mediaTypes) {
+        final BitSet bits = mediaTypes.bits();
+        List<String> accepted = Collections.emptyList();
+        for (int id : preferred) {
+            if (bits.get(id)) {
+                if (accepted.isEmpty()) {
+                    accepted = new ArrayList<String>(2);
+                }
+                accepted.add(MediaTypeSet.nameOf(id));
+            }
+        }
+        return accepted;
+    }
+    
+    /**
+     * Determines if this AcceptHeader was parsed with all the media types that are currently known.
+     */
+    boolean isCurrent() {
+        return this == NONE || knownMediaTypes == MediaTypeSet.nameCount();
+    }
+    
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+    
+    /**
+     * Two AcceptHeaders are equal if they accept the same media types, even if their preferences differ.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AcceptHeader)) {
+            return false;
+        }
+        final AcceptHeader other = (AcceptHeader) obj;
+        return empty == other.empty && acceptsAny == other.acceptsAny && acceptable.equals(other.acceptable) 
+                && excluded.equals(other.excluded);
+    }
+    
+    @Override
+    public String toString() {
+        return "AcceptHeader" + mediaTypes;
+    }
+    
+    private static class Range implements Comparable<Range> {
+        private final String mediaType;
+        private final float quality;
+        private final int position;
+        
+        private Range(final String mediaType, final float quality, final int position) {
+            this.mediaType = mediaType;
+            this.quality = quality;
+            this.position = position;
+        }
+        
+        private boolean isWildcardType() {
+            return mediaType.startsWith("*");
+        }
+        
+        private boolean isWildcardSubtype() {
+            return mediaType.endsWith("/*");
+        }
+        
+        @Override
+        public int compareTo(final Range other) {
+            final int byQuality = Float.compare(other.quality, quality);
+            return byQuality != 0 ? byQuality : position - other.position;
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * AcceptHeaderCache is a bounded, concurrent cache of parsed {@link AcceptHeader}s, keyed on the raw value of the
+ * Accept header.
+ * </p>
+ * Clients tend to send a small number of distinct Accept headers, so caching the parsed form avoids parsing
+ * the same header for every request. When the cache is full the least recently used entries are evicted.
+ * </p>
+ * An {@link AcceptHeader} resolves media types against the media types that are known when it is parsed. If 
+ * new media types are registered afterwards, for example because routes are rebuilt, cached entries are 
+ * parsed again the next time they are requested.
+ */
+public final class AcceptHeaderCache {
+    
+    /**
+     * The maximum number of parsed Accept headers held by the shared cache.
+     */
+    public static final int MAXIMUM_SIZE = 256;
+    
+    private static final AcceptHeaderCache INSTANCE = new AcceptHeaderCache(MAXIMUM_SIZE);
+    
+    private final Cache<String, AcceptHeader> cache;
+    private final int maximumSize;
+    
+    AcceptHeaderCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(new CacheLoader<String, AcceptHeader>() {
+            @Override
+            public AcceptHeader load(final String header) {
+                return AcceptHeader.parse(header);
+            }
+        });
+    }
+    
+    /**
+     * Returns the AcceptHeaderCache shared by all requests.
+     * 
+     * @return {@link AcceptHeaderCache} the shared cache.
+     */
+    public static AcceptHeaderCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Returns the parsed form of the passed-in Accept header, parsing it only if it is not already cached.
+     * 
+     * @param header the value of the Accept header.
+     * @return {@link AcceptHeader} the parsed header, or {@link AcceptHeader#NONE} if the header was {@code null}.
+     */
+    public AcceptHeader get(final String header) {
+        if (header == null) {
+            return AcceptHeader.NONE;
+        }
+        final AcceptHeader acceptHeader = cache.getUnchecked(header);
+        if (acceptHeader.isCurrent()) {
+            return acceptHeader;
+        }
+        cache.invalidate(header);
+        return cache.getUnchecked(header);
+    }
+    
+    /**
+     * Returns the number of Accept headers that were answered by the cache.
+     * 
+     * @return {@code long} the number of cache hits.
+     */
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+    
+    /**
+     * Returns the number of Accept headers that were not cached and had to be parsed.
+     * 
+     * @return {@code long} the number of cache misses.
+     */
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+    
+    /**
+     * Returns the ratio of Accept headers that were answered by the cache.
+     * 
+     * @return {@code double} the hit rate, or 1.0 if no headers have been requested.
+     */
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+    
+    /**
+     * Returns the number of parsed Accept headers currently cached.
+     * 
+     * @return {@code long} the number of entries in the cache.
+     */
+    public long size() {
+        return cache.size();
+    }
+    
+    /**
+     * Discards all cached Accept headers.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    @Override
+    public String toString() {
+        return "AcceptHeaderCache[maximumSize=" + maximumSize + ", size=" + size() + ", stats=" + cache.stats() + "]";
+    }
+
+}
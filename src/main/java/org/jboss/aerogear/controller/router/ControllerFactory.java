@@ -1,22 +1,142 @@
 package org.jboss.aerogear.controller.router;
 
+import java.lang.annotation.Annotation;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Singleton;
+
+import org.jboss.aerogear.controller.log.LoggerMessages;
 
 /**
  * ControllerFactory is a factory for target endpoint classes in AeroGear.
+ * </p>
+ * The CDI {@link Bean} of a target endpoint class is resolved the first time an instance of the class is created,
+ * and is cached so that subsequent requests do not have to look up the bean using the {@link BeanManager}.
+ * </p>
+ * How instances are provided depends on the scope of the target endpoint class:
+ * <ul>
+ * <li>For normal scopes, like {@code @ApplicationScoped} or {@code @RequestScoped}, and for {@code @Singleton}, a
+ * contextual reference is obtained once and shared by all requests. For normal scopes the reference is a client
+ * proxy that delegates to the instance of the current context.</li>
+ * <li>For {@code @Dependent}, a new instance is created for every request. It must be passed to
+ * {@link #releaseController(Class, Object)} once the request has been processed, which destroys the instance
+ * together with the dependent objects that were injected into it.</li>
+ * </ul>
  */
 public class ControllerFactory {
 
+    private final ConcurrentMap<Class<?>, Bean<?>> beans = new ConcurrentHashMap<Class<?>, Bean<?>>();
+    private final ConcurrentMap<Class<?>, Object> sharedControllers = new ConcurrentHashMap<Class<?>, Object>();
+    private final ConcurrentMap<Identity, DependentController<?>> dependentControllers = new ConcurrentHashMap<Identity, DependentController<?>>();
+
     /**
      * Creates an instance of the passed-in type by delegating to CDI (beanManager).
-     * 
+     *
      * @param targetClass the type of the target endpoint class.
      * @param beanManager the CDI bean manager that should be used to look up the type.
      * @return Object an instance of the target class.
      */
     public Object createController(Class<?> targetClass, BeanManager beanManager) {
-        Bean next = beanManager.getBeans(targetClass).iterator().next();
-        return next.create(beanManager.createCreationalContext(next));
+        final Object shared = sharedControllers.get(targetClass);
+        if (shared != null) {
+            return shared;
+        }
+        final Bean<?> bean = beanFor(targetClass, beanManager);
+        final Class<? extends Annotation> scope = bean.getScope();
+        if (Dependent.class.equals(scope)) {
+            return createDependent(bean, beanManager);
+        }
+        final Object reference = beanManager.getReference(bean, targetClass, beanManager.createCreationalContext(bean));
+        if (beanManager.isNormalScope(scope) || Singleton.class.equals(scope)) {
+            sharedControllers.putIfAbsent(targetClass, reference);
+        }
+        return reference;
+    }
+
+    /**
+     * Releases an instance previously returned by {@link #createController(Class, BeanManager)}.
+     * </p>
+     * {@code @Dependent} instances are destroyed, instances of other scopes are left to their context.
+     *
+     * @param targetClass the type of the target endpoint class.
+     * @param controller the instance to release.
+     */
+    public void releaseController(Class<?> targetClass, Object controller) {
+        if (controller == null || sharedControllers.containsKey(targetClass)) {
+            return;
+        }
+        final DependentController<?> dependent = dependentControllers.remove(new Identity(controller));
+        if (dependent != null) {
+            dependent.destroy();
+        }
+    }
+
+    /**
+     * Returns the CDI {@link Bean} for the passed-in type, resolving it only the first time it is requested.
+     *
+     * @param targetClass the type of the target endpoint class.
+     * @param beanManager the CDI bean manager that should be used to look up the type.
+     * @return {@link Bean} the bean for the target class.
+     * @throws javax.enterprise.inject.AmbiguousResolutionException if more than one bean matches the type.
+     */
+    public Bean<?> beanFor(Class<?> targetClass, BeanManager beanManager) {
+        Bean<?> bean = beans.get(targetClass);
+        if (bean == null) {
+            bean = beanManager.resolve(beanManager.getBeans(targetClass));
+            if (bean == null) {
+                throw LoggerMessages.MESSAGES.noBeanForTargetClass(targetClass);
+            }
+            beans.putIfAbsent(targetClass, bean);
+        }
+        return bean;
+    }
+
+    private <T> T createDependent(Bean<T> bean, BeanManager beanManager) {
+        final CreationalContext<T> creationalContext = beanManager.createCreationalContext(bean);
+        final T instance = bean.create(creationalContext);
+        dependentControllers.put(new Identity(instance), new DependentController<T>(bean, instance, creationalContext));
+        return instance;
+    }
+
+    private static class DependentController<T> {
+        private final Bean<T> bean;
+        private final T instance;
+        private final CreationalContext<T> creationalContext;
+
+        private DependentController(Bean<T> bean, T instance, CreationalContext<T> creationalContext) {
+            this.bean = bean;
+            this.instance = instance;
+            this.creationalContext = creationalContext;
+        }
+
+        private void destroy() {
+            bean.destroy(instance, creationalContext);
+        }
+    }
+
+    /**
+     * Compares controller instances by identity, as controllers may override equals and hashCode.
+     */
+    private static class Identity {
+        private final Object instance;
+
+        private Identity(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Identity && ((Identity) obj).instance == instance;
+        }
     }
 }
@@ -10,24 +10,27 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.parameter.ExtractionPlan;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 
-import com.google.common.collect.Sets;
-
 
 /**
  * An immutable implementation of {@link Route}.
  */
 public class DefaultRoute implements Route {
     private final String path;
+    private final PathTemplate pathTemplate;
     private final Class<?> targetClass;
     private final Method targetMethod;
+    private final TargetInvoker targetInvoker;
     private final Set<RequestMethod> methods;
     private final Set<String> roles;
     private final Set<String> consumes;
     private final Set<String> produces;
+    private final MediaTypeSet producedMediaTypes;
     private final Set<Class<? extends Throwable>> throwables;
     private final List<Parameter<?>> parameters;
+    private final ExtractionPlan extractionPlan;
 
 
     /**
@@ -37,13 +40,17 @@ public class DefaultRoute implements Route {
      */
     public DefaultRoute(RouteDescriptor descriptor) {
         this.path = descriptor.getPath();
+        this.pathTemplate = path == null ? null : new PathTemplate(path);
         this.methods = asSet(descriptor.getMethods());
         this.targetMethod = descriptor.getTargetMethod();
         this.targetClass = descriptor.getTargetClass();
+        this.targetInvoker = targetMethod == null ? null : TargetInvoker.forMethod(targetClass, targetMethod);
         this.roles = asSet(firstNonNull(descriptor.getRoles(), new String[]{}));
         this.produces = asSet(descriptor.getProduces(), MediaType.HTML.toString());
+        this.producedMediaTypes = MediaTypeSet.of(produces);
         this.consumes = asSet(descriptor.getConsumes(), MediaType.HTML.toString());
         this.parameters = firstNonNull(descriptor.getParameters(), Collections.<Parameter<?>>emptyList());
+        this.extractionPlan = ExtractionPlan.compile(parameters, targetMethod);
         this.throwables = firstNonNull(descriptor.getThrowables(), emptyThrowableSet());
     }
 
@@ -64,24 +71,21 @@ public class DefaultRoute implements Route {
 
     @Override
     public boolean matches(RequestMethod method, String path, Set<String> acceptHeaders) {
-        return this.methods.contains(method) && isPathCompatible(path) && matchesProduces(acceptHeaders);
+        return matches(method, path, AcceptHeader.of(acceptHeaders));
     }
-    
-    private boolean matchesProduces(final Set<String> acceptHeaders) {
-        if (acceptHeaders.isEmpty() || acceptHeaders.contains(MediaType.ANY.toString())) {
-            return true;
-        }
-        return !Sets.intersection(produces, acceptHeaders).isEmpty();
+
+    @Override
+    public boolean matches(RequestMethod method, String path, AcceptHeader acceptHeader) {
+        return this.methods.contains(method) && isPathCompatible(path) && acceptHeader.accepts(producedMediaTypes);
     }
 
     private boolean isPathCompatible(String path) {
-        if (isParameterized()) {
-            final int paramStart = this.path.indexOf('{');
-            if (paramStart < path.length()) {
-                return this.path.subSequence(0, paramStart).equals(path.subSequence(0, paramStart));
-            }
-        }
-        return this.path.equals(path);
+        return pathTemplate.matches(path);
+    }
+
+    @Override
+    public PathTemplate getPathTemplate() {
+        return pathTemplate;
     }
 
     @Override
@@ -89,9 +93,14 @@ public class DefaultRoute implements Route {
         return targetMethod;
     }
 
+    @Override
+    public TargetInvoker getTargetInvoker() {
+        return targetInvoker;
+    }
+
     @Override
     public boolean isParameterized() {
-        return path.contains("{");
+        return pathTemplate.isParameterized();
     }
 
     @Override
@@ -114,11 +123,21 @@ public class DefaultRoute implements Route {
         return Collections.unmodifiableSet(produces);
     }
     
+    @Override
+    public MediaTypeSet getProducedMediaTypes() {
+        return producedMediaTypes;
+    }
+    
     @Override
     public List<Parameter<?>> getParameters() {
         return Collections.<Parameter<?>>unmodifiableList(parameters);
     }
     
+    @Override
+    public ExtractionPlan getExtractionPlan() {
+        return extractionPlan;
+    }
+    
     public Set<String> consumes() {
         return Collections.unmodifiableSet(consumes);
     }
@@ -132,6 +151,11 @@ public class DefaultRoute implements Route {
         }
         return false;
     }
+    
+    @Override
+    public Set<Class<? extends Throwable>> getThrowables() {
+        return Collections.unmodifiableSet(throwables);
+    }
 
     @Override
     public String toString() {
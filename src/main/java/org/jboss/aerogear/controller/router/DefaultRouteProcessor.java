@@ -61,8 +61,13 @@ public class DefaultRouteProcessor implements RouteProcessor {
     public void process(RouteContext routeContext) throws Exception {
         final Route route = routeContext.getRoute();
         final Object[] arguments = extractArguments(routeContext, consumers);
-        final Object result = route.getTargetMethod().invoke(getController(route), arguments);
-        responders.respond(routeContext, result);
+        final Object controller = getController(route);
+        try {
+            final Object result = route.getTargetInvoker().invoke(controller, arguments);
+            responders.respond(routeContext, result);
+        } finally {
+            controllerFactory.releaseController(route.getTargetClass(), controller);
+        }
     }
     
     private Object getController(Route route) {
@@ -2,7 +2,7 @@ package org.jboss.aerogear.controller.router;
 
 import static org.jboss.aerogear.controller.util.RequestUtils.extractMethod;
 import static org.jboss.aerogear.controller.util.RequestUtils.extractPath;
-import static org.jboss.aerogear.controller.util.RequestUtils.extractAcceptHeader;
+import static org.jboss.aerogear.controller.util.RequestUtils.parseAcceptHeader;
 
 import java.util.Collections;
 
@@ -13,7 +13,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.jboss.aerogear.controller.util.RequestUtils;
+import org.jboss.aerogear.controller.log.LoggerMessages;
 
 /**
  * Default implementation of {@link Router}.
@@ -25,6 +25,10 @@ import org.jboss.aerogear.controller.util.RequestUtils;
  * The CDI implementation will scan for an instance of {@link RoutingModule} upon deployment, and its<br> 
  * {@link RoutingModule#build()} method will be called to assemble the routes configured for this application.<br>
  * To simplify this process {@link AbstractRoutingModule} is provided, please refer its javadoc for sample usage.
+ * 
+ * <h3> RouteCacheConfiguration </h3>
+ * If an instance of {@link RouteCacheConfiguration} is available, route lookups will be cached as configured<br>
+ * by it. By default route lookups are not cached.
  */
 public class DefaultRouter implements Router {
     
@@ -35,25 +39,43 @@ public class DefaultRouter implements Router {
     }
     
     @Inject
-    public DefaultRouter(Instance<RoutingModule> instance, RouteProcessor routeProcessor) {
-        this.routes = instance.isUnsatisfied() ? Routes.from(Collections.<RouteBuilder>emptyList()) : instance.get().build();
+    public DefaultRouter(Instance<RoutingModule> instance, RouteProcessor routeProcessor, Instance<RouteCacheConfiguration> cacheConfigInstance) {
+        final Routes routes = instance.isUnsatisfied() ? Routes.from(Collections.<RouteBuilder>emptyList()) : instance.get().build();
+        final RouteCacheConfiguration cacheConfig = cacheConfigInstance.isUnsatisfied() ? RouteCacheConfig.defaultConfig() : cacheConfigInstance.get();
+        this.routes = routes.withCache(cacheConfig);
         this.routeProcessor = routeProcessor;
     }
 
     @Override
     public boolean hasRouteFor(HttpServletRequest request) {
-        return routes.hasRouteFor(extractMethod(request), extractPath(request), extractAcceptHeader(request));
+        final String requestPath = extractPath(request);
+        return routes.mightHaveRouteFor(requestPath) && match(request, requestPath).hasRoute();
     }
 
     @Override
     public void dispatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException {
         try {
-            String requestPath = RequestUtils.extractPath(request);
-            Route route = routes.routeFor(extractMethod(request), requestPath, extractAcceptHeader(request));
-            routeProcessor.process(new RouteContext(route, requestPath, request, response, routes));
+            final RouteMatch match = match(request, extractPath(request));
+            if (!match.hasRoute()) {
+                throw LoggerMessages.MESSAGES.routeNotFound(match.getMethod(), match.getRequestPath(), match.getAcceptHeaders());
+            }
+            routeProcessor.process(new RouteContext(match, request, response, routes));
         } catch (Exception e) {
             throw new ServletException(e.getMessage(), e);
         }
     }
     
+    /**
+     * Returns the {@link RouteMatch} for the passed-in request. The lookup is only performed on the first
+     * call for a request, subsequent calls reuse the match stored in the request.
+     */
+    private RouteMatch match(HttpServletRequest request, String requestPath) {
+        final RequestMethod method = extractMethod(request);
+        final RouteMatch match = RouteMatch.from(request, routes, method, requestPath);
+        if (match != null) {
+            return match;
+        }
+        return routes.match(method, requestPath, parseAcceptHeader(request)).storeIn(request);
+    }
+
 }
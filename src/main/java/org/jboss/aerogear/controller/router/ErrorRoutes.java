@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.aerogear.controller.router.error.ErrorRoute;
+
+/**
+ * ErrorRoutes is an index of the error {@link Route}s, keyed by the {@link Throwable} types they handle.
+ * </p>
+ * Resolving the error route for an exception walks the class hierarchy of the exception once, looking up each 
+ * class in the index. When more than one route can handle the exception the one that was configured first is
+ * returned, which is the same first-match-wins behaviour as asking each route in turn. The outcome is memoized 
+ * per exception class, so subsequent exceptions of the same class are resolved with a single lookup.
+ */
+final class ErrorRoutes {
+    
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+    
+    private final Route[] routes;
+    private final Map<Class<?>, Integer> routesByType = new HashMap<Class<?>, Integer>();
+    private final ConcurrentMap<Class<?>, Route> resolved = new ConcurrentHashMap<Class<?>, Route>();
+    
+    /**
+     * Constructs an ErrorRoutes for the error routes among the passed-in routes.
+     * 
+     * @param routes all the configured routes, in the order they were configured.
+     */
+    ErrorRoutes(final List<Route> routes) {
+        this.routes = routes.toArray(new Route[routes.size()]);
+        for (int i = 0; i < this.routes.length; i++) {
+            for (Class<? extends Throwable> type : this.routes[i].getThrowables()) {
+                if (!routesByType.containsKey(type)) {
+                    routesByType.put(type, i);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns the first configured {@link Route} that handles the passed-in {@link Throwable}.
+     * 
+     * @param throwable the {@link Throwable} to match with a {@link Route}.
+     * @return {@link Route} the error route, or {@link ErrorRoute#DEFAULT} if no error route handles the throwable.
+     */
+    Route routeFor(final Throwable throwable) {
+        final Class<?> type = throwable.getClass();
+        final Route route = resolved.get(type);
+        if (route != null) {
+            return route;
+        }
+        final Route resolvedRoute = resolve(type);
+        resolved.putIfAbsent(type, resolvedRoute);
+        return resolvedRoute;
+    }
+    
+    private Route resolve(final Class<?> type) {
+        int best = NO_MATCH;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            final Integer index = routesByType.get(c);
+            if (index != null && index < best) {
+                best = index;
+            }
+        }
+        return best == NO_MATCH ? ErrorRoute.DEFAULT.getRoute() : routes[best];
+    }
+
+}
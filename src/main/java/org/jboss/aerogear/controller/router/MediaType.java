@@ -28,6 +28,7 @@ import java.util.Set;
 public enum MediaType {
     HTML("text/html"), 
     JSON("application/json"),
+    SMILE("application/x-jackson-smile"),
     ANY("*/*");
     
     private String type;
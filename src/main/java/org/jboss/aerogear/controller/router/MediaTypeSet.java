@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MediaTypeSet is an immutable set of media types, for example the media types that a {@link Route} produces.
+ * </p>
+ * Every media type is interned into a small integer id the first time it is used to create a MediaTypeSet, which 
+ * normally happens while the routes are built. A MediaTypeSet holds the ids both as a {@link BitSet}, so that it
+ * can be intersected with the media types of an {@link AcceptHeader} using bitwise operations, and in the order 
+ * the media types were specified.
+ * </p>
+ * Media types are compared on their type and subtype only, ignoring case and parameters, so 'application/json'
+ * and 'Application/JSON;charset=UTF-8' are the same media type.
+ */
+public final class MediaTypeSet {
+    
+    private static volatile Registry registry = new Registry();
+    
+    private final String[] mediaTypes;
+    private final int[] ids;
+    private final BitSet bits = new BitSet();
+    
+    private MediaTypeSet(final Set<String> mediaTypes) {
+        this.mediaTypes = mediaTypes.toArray(new String[mediaTypes.size()]);
+        this.ids = new int[this.mediaTypes.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = intern(this.mediaTypes[i]);
+            bits.set(ids[i]);
+        }
+    }
+    
+    /**
+     * Creates a MediaTypeSet containing the passed-in media types.
+     * 
+     * @param mediaTypes the media types, in order of preference.
+     * @return {@link MediaTypeSet} containing the normalized media types.
+     */
+    public static MediaTypeSet of(final Collection<String> mediaTypes) {
+        final Set<String> normalized = new LinkedHashSet<String>();
+        for (String mediaType : mediaTypes) {
+            normalized.add(normalize(mediaType));
+        }
+        return new MediaTypeSet(normalized);
+    }
+    
+    /**
+     * Returns the media types in this set.
+     * 
+     * @return {@code List<String>} the normalized media types, in the order they were specified.
+     */
+    public List<String> getMediaTypes() {
+        final List<String> list = new ArrayList<String>(mediaTypes.length);
+        Collections.addAll(list, mediaTypes);
+        return Collections.unmodifiableList(list);
+    }
+    
+    /**
+     * Determines if the passed-in media type is a member of this set.
+     * 
+     * @param mediaType the media type.
+     * @return {@code true} if the media type is a member of this set, otherwise {@code false}.
+     */
+    public boolean contains(final String mediaType) {
+        final int id = idOf(normalize(mediaType));
+        return id != -1 && bits.get(id);
+    }
+    
+    int[] ids() {
+        return ids;
+    }
+    
+    BitSet bits() {
+        return bits;
+    }
+    
+    @Override
+    public String toString() {
+        return "MediaTypeSet" + getMediaTypes();
+    }
+    
+    /**
+     * Normalizes the passed-in media type by removing any parameters and converting it to lower case. A 
+     * single '*' is treated as '*&#47;*'.
+     * 
+     * @param mediaType the media type, for example 'application/json; charset=UTF-8'.
+     * @return {@code String} the normalized media type, for example 'application/json'.
+     */
+    public static String normalize(final String mediaType) {
+        final int semicolon = mediaType.indexOf(';');
+        final String type = (semicolon == -1 ? mediaType : mediaType.substring(0, semicolon)).trim().toLowerCase(Locale.ENGLISH);
+        return "*".equals(type) ? MediaType.ANY.toString() : type;
+    }
+    
+    /**
+     * Returns the id of the passed-in normalized media type.
+     * 
+     * @return {@code int} the id, or -1 if the media type has not been interned.
+     */
+    static int idOf(final String mediaType) {
+        final Integer id = registry.ids.get(mediaType);
+        return id == null ? -1 : id;
+    }
+    
+    static int nameCount() {
+        return registry.names.size();
+    }
+    
+    static String nameOf(final int id) {
+        return registry.names.get(id);
+    }
+    
+    /**
+     * Returns the ids of all interned media types with the passed-in type, for example 'application'.
+     * The returned {@link BitSet} must not be modified.
+     */
+    static BitSet idsOfType(final String type) {
+        final BitSet ids = registry.types.get(type);
+        return ids == null ? new BitSet() : ids;
+    }
+    
+    private static synchronized int intern(final String mediaType) {
+        final int id = idOf(mediaType);
+        if (id != -1) {
+            return id;
+        }
+        registry = registry.add(mediaType);
+        return registry.names.size() - 1;
+    }
+    
+    /**
+     * An immutable snapshot of the interned media types. Interning creates a new snapshot, which allows 
+     * lookups to be performed without locking.
+     */
+    private static class Registry {
+        private final Map<String, Integer> ids;
+        private final List<String> names;
+        private final Map<String, BitSet> types;
+        
+        private Registry() {
+            this(new HashMap<String, Integer>(), new ArrayList<String>(), new HashMap<String, BitSet>());
+        }
+        
+        private Registry(final Map<String, Integer> ids, final List<String> names, final Map<String, BitSet> types) {
+            this.ids = ids;
+            this.names = names;
+            this.types = types;
+        }
+        
+        private Registry add(final String mediaType) {
+            final int id = names.size();
+            final Map<String, Integer> newIds = new HashMap<String, Integer>(ids);
+            newIds.put(mediaType, id);
+            final List<String> newNames = new ArrayList<String>(names);
+            newNames.add(mediaType);
+            final Map<String, BitSet> newTypes = new HashMap<String, BitSet>(types);
+            final String type = typeOf(mediaType);
+            final BitSet typeIds = types.containsKey(type) ? (BitSet) types.get(type).clone() : new BitSet();
+            typeIds.set(id);
+            newTypes.put(type, typeIds);
+            return new Registry(newIds, newNames, newTypes);
+        }
+    }
+    
+    static String typeOf(final String mediaType) {
+        final int slash = mediaType.indexOf('/');
+        return slash == -1 ? mediaType : mediaType.substring(0, slash);
+    }
+
+}
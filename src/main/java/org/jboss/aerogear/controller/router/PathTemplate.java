@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * PathTemplate is the parsed form of a {@link Route} path, for example '/cars/{id}/wheels/{n}'.
+ * </p>
+ * A path template consists of segments separated by '/'. Each segment is either a literal, or contains a single
+ * named variable enclosed in curly braces, optionally surrounded by a literal prefix and suffix, for example
+ * '{id}' or 'car-{id}.json'. A variable matches one non-empty path segment.
+ * </p>
+ * A variable can be constrained by following its name with a colon and either a type or a regular expression:
+ * <ul>
+ * <li>'{id:int}' and '{id:long}' only match an optionally signed sequence of digits</li>
+ * <li>'{id:uuid}' only matches a UUID, for example '3b241101-e2bb-4255-8caf-4136c566a962'</li>
+ * <li>'{code:[A-Z]{3}}' only matches values that match the regular expression</li>
+ * </ul>
+ * A request path with a value that does not satisfy the constraint does not match the template, so the
+ * request can be handled by another route.
+ * </p>
+ * The template is parsed once, and matching a request path only records the offsets of the variables within the
+ * request path. The actual values are only created when they are requested from the returned {@link PathVariables}.
+ */
+public class PathTemplate {
+
+    private final String path;
+    private final Segment[] segments;
+    private final String[] variableNames;
+
+    /**
+     * Parses the passed-in path template.
+     *
+     * @param path the path template.
+     * @throws IllegalArgumentException if a segment of the path contains more than one variable, or a variable is not terminated.
+     */
+    public PathTemplate(final String path) {
+        this.path = path;
+        final String[] parts = path.split("/", -1);
+        final List<String> names = new ArrayList<String>();
+        segments = new Segment[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            segments[i] = parseSegment(parts[i], names);
+        }
+        variableNames = names.toArray(new String[names.size()]);
+    }
+
+    private Segment parseSegment(final String segment, final List<String> names) {
+        final int open = segment.indexOf('{');
+        if (open == -1) {
+            return new Segment(segment, null, -1, Constraint.NONE);
+        }
+        final int close = closingBracket(segment, open);
+        final String suffix = segment.substring(close + 1);
+        if (suffix.indexOf('{') != -1) {
+            throw new IllegalArgumentException("Only one variable per path segment is supported, path: '" + path + "'");
+        }
+        final String variable = segment.substring(open + 1, close);
+        final int colon = variable.indexOf(':');
+        names.add(colon == -1 ? variable : variable.substring(0, colon));
+        final Constraint constraint = colon == -1 ? Constraint.NONE : Constraint.of(variable.substring(colon + 1));
+        return new Segment(segment.substring(0, open), suffix, names.size() - 1, constraint);
+    }
+
+    private int closingBracket(final String segment, final int open) {
+        int brackets = 0;
+        for (int i = open; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '{') {
+                brackets++;
+            } else if (c == '}' && --brackets == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated variable in path: '" + path + "'");
+    }
+
+    /**
+     * Returns the path template this instance was parsed from.
+     *
+     * @return {@code String} the path template.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Determines if this template contains any variables.
+     *
+     * @return {@code true} if this template contains one or more variables, otherwise {@code false}.
+     */
+    public boolean isParameterized() {
+        return variableNames.length > 0;
+    }
+
+    /**
+     * Returns the names of the variables in this template, in the order they appear in the path.
+     *
+     * @return {@code List<String>} the variable names, or an empty list if this template has no variables.
+     */
+    public List<String> getVariableNames() {
+        return Collections.unmodifiableList(Arrays.asList(variableNames));
+    }
+
+    int indexOf(final String variableName) {
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i].equals(variableName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines if the passed-in request path matches this template, without capturing any variables.
+     *
+     * @param requestPath the request path minus the context path.
+     * @return {@code true} if the request path matches this template, otherwise {@code false}.
+     */
+    public boolean matches(final String requestPath) {
+        return match(requestPath, null);
+    }
+
+    /**
+     * Matches the passed-in request path against this template, capturing the variables.
+     *
+     * @param requestPath the request path minus the context path.
+     * @return {@link PathVariables} the captured variables, or {@code null} if the request path does not match.
+     */
+    public PathVariables match(final String requestPath) {
+        final int[] offsets = new int[variableNames.length * 2];
+        return match(requestPath, offsets) ? new PathVariables(this, requestPath, offsets) : null;
+    }
+
+    private boolean match(final String requestPath, final int[] offsets) {
+        int start = 0;
+        for (Segment segment : segments) {
+            if (start > requestPath.length()) {
+                return false;
+            }
+            int end = requestPath.indexOf('/', start);
+            if (end == -1) {
+                end = requestPath.length();
+            }
+            if (!segment.matches(requestPath, start, end, offsets)) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return start == requestPath.length() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static class Segment {
+        private final String prefix;
+        private final String suffix;
+        private final int variable;
+        private final Constraint constraint;
+
+        private Segment(final String prefix, final String suffix, final int variable, final Constraint constraint) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.variable = variable;
+            this.constraint = constraint;
+        }
+
+        private boolean matches(final String requestPath, final int start, final int end, final int[] offsets) {
+            final int length = end - start;
+            if (variable == -1) {
+                return length == prefix.length() && requestPath.regionMatches(start, prefix, 0, length);
+            }
+            if (length <= prefix.length() + suffix.length()
+                    || !requestPath.regionMatches(start, prefix, 0, prefix.length())
+                    || !requestPath.regionMatches(end - suffix.length(), suffix, 0, suffix.length())
+                    || !constraint.accepts(requestPath, start + prefix.length(), end - suffix.length())) {
+                return false;
+            }
+            if (offsets != null) {
+                offsets[variable * 2] = start + prefix.length();
+                offsets[variable * 2 + 1] = end - suffix.length();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A Constraint restricts the values that a variable matches. Constraints inspect the region of the request 
+     * path that holds the value, so checking a constraint does not create the value.
+     */
+    private abstract static class Constraint {
+
+        private static final Constraint NONE = new Constraint() {
+            @Override
+            boolean accepts(final String path, final int start, final int end) {
+                return true;
+            }
+        };
+
+        private static final Constraint INT = new Digits(false);
+        private static final Constraint LONG = new Digits(true);
+
+        private static final Constraint UUID = new Constraint() {
+            @Override
+            boolean accepts(final String path, final int start, final int end) {
+                if (end - start != 36) {
+                    return false;
+                }
+                for (int i = 0; i < 36; i++) {
+                    final char c = path.charAt(start + i);
+                    if (i == 8 || i == 13 || i == 18 || i == 23) {
+                        if (c != '-') {
+                            return false;
+                        }
+                    } else if (Character.digit(c, 16) == -1) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+
+        abstract boolean accepts(String path, int start, int end);
+
+        private static Constraint of(final String spec) {
+            if ("int".equals(spec)) {
+                return INT;
+            }
+            if ("long".equals(spec)) {
+                return LONG;
+            }
+            if ("uuid".equals(spec)) {
+                return UUID;
+            }
+            return new Regex(Pattern.compile(spec));
+        }
+    }
+
+    private static class Digits extends Constraint {
+        private final boolean isLong;
+        private final int maxDigits;
+
+        private Digits(final boolean isLong) {
+            this.isLong = isLong;
+            this.maxDigits = isLong ? 19 : 10;
+        }
+
+        @Override
+        boolean accepts(final String path, final int start, final int end) {
+            final int first = path.charAt(start) == '-' ? start + 1 : start;
+            if (first == end || end - first > maxDigits) {
+                return false;
+            }
+            for (int i = first; i < end; i++) {
+                final char c = path.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return end - first < maxDigits || fitsInRange(path.substring(start, end));
+        }
+
+        private boolean fitsInRange(final String value) {
+            try {
+                if (isLong) {
+                    Long.parseLong(value);
+                } else {
+                    Integer.parseInt(value);
+                }
+                return true;
+            } catch (final NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+
+    private static class Regex extends Constraint {
+        private final Pattern pattern;
+
+        private Regex(final Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean accepts(final String path, final int start, final int end) {
+            return pattern.matcher(path).region(start, end).matches();
+        }
+    }
+
+}
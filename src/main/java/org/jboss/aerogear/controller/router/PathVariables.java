@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * PathVariables holds the variables captured by matching a request path against a {@link PathTemplate}.
+ * </p>
+ * Only the offsets of the variables within the request path are recorded when matching, a value is
+ * created the first time it is requested.
+ */
+public class PathVariables {
+
+    /**
+     * PathVariables without any variables, for routes that are not parameterized or did not match.
+     */
+    public static final PathVariables NONE = new PathTemplate("").match("");
+
+    private final PathTemplate template;
+    private final String requestPath;
+    private final int[] offsets;
+    private final String[] values;
+
+    PathVariables(final PathTemplate template, final String requestPath, final int[] offsets) {
+        this.template = template;
+        this.requestPath = requestPath;
+        this.offsets = offsets;
+        this.values = new String[offsets.length / 2];
+    }
+
+    /**
+     * Returns the value of the named variable.
+     *
+     * @param name the name of the variable, as specified in the path template.
+     * @return {@code String} the value of the variable, or {@code null} if the template has no variable with that name.
+     */
+    public String get(final String name) {
+        final int index = template.indexOf(name);
+        return index == -1 ? null : get(index);
+    }
+
+    /**
+     * Returns the value of the variable at the passed-in position.
+     *
+     * @param index the position of the variable in the path template.
+     * @return {@code String} the value of the variable.
+     */
+    public String get(final int index) {
+        if (values[index] == null) {
+            values[index] = requestPath.substring(offsets[index * 2], offsets[index * 2 + 1]);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the number of variables captured.
+     *
+     * @return {@code int} the number of variables.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PathVariables[");
+        for (int i = 0; i < size(); i++) {
+            sb.append(i == 0 ? "" : ", ").append(template.getVariableNames().get(i)).append('=').append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+}
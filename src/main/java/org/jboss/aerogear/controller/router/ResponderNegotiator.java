@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.MapMaker;
+
+/**
+ * ResponderNegotiator selects the {@link Responder} for a {@link Route} and an {@link AcceptHeader}.
+ * </p>
+ * The Responder for a media type is the first Responder, in the order they were registered, that
+ * {@link Responder#accepts(String) accepts} the media type. As {@code accepts} decides, custom Responders that
+ * accept more than their own {@link Responder#mediaType()} take part in the same way as the built-in ones. The
+ * Responder for each media type is looked up once and kept in a map, which is populated with the media types of
+ * all Responders and '*&#47;*' when the ResponderNegotiator is created.
+ * </p>
+ * The Responder negotiated for a Route and an AcceptHeader is cached as well, so once a client has made a request
+ * to a route, selecting the Responder for subsequent requests with the same Accept header is a map lookup.
+ * AcceptHeaders are shared by requests through the {@link AcceptHeaderCache}, and the cache holds both them and
+ * the Routes weakly, by identity, so entries go away with the AcceptHeaders that are evicted and the Routes that
+ * are rebuilt.
+ */
+public final class ResponderNegotiator {
+
+    private final List<Responder> responders;
+    private final ConcurrentMap<String, Optional<Responder>> mediaTypes = new ConcurrentHashMap<String, Optional<Responder>>();
+    private final ConcurrentMap<AcceptHeader, ConcurrentMap<Route, Responder>> selections = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Constructs a ResponderNegotiator.
+     *
+     * @param responders the {@link Responder}s, in order of precedence.
+     */
+    public ResponderNegotiator(final Collection<Responder> responders) {
+        this.responders = Collections.unmodifiableList(new ArrayList<Responder>(responders));
+        for (Responder responder : this.responders) {
+            if (responder.mediaType() != null) {
+                responderFor(responder.mediaType());
+            }
+        }
+        responderFor(MediaType.ANY.toString());
+    }
+
+    /**
+     * Returns the {@link Responder} for the passed-in route and Accept header.
+     * </p>
+     * The media types that the route produces are tried in the order preferred by the Accept header. If none of
+     * them has a Responder, and the Accept header is empty or accepts '*&#47;*', the Responder for '*&#47;*' is used.
+     *
+     * @param route the {@link Route} that was invoked.
+     * @param acceptHeader the {@link AcceptHeader} of the request.
+     * @return {@link Responder} the negotiated Responder, or {@code null} if there is none.
+     */
+    public Responder negotiate(final Route route, final AcceptHeader acceptHeader) {
+        ConcurrentMap<Route, Responder> routes = selections.get(acceptHeader);
+        if (routes == null) {
+            routes = new MapMaker().weakKeys().makeMap();
+            final ConcurrentMap<Route, Responder> existing = selections.putIfAbsent(acceptHeader, routes);
+            if (existing != null) {
+                routes = existing;
+            }
+        }
+        Responder responder = routes.get(route);
+        if (responder == null) {
+            responder = select(route, acceptHeader);
+            if (responder != null) {
+                routes.putIfAbsent(route, responder);
+            }
+        }
+        return responder;
+    }
+
+    /**
+     * Returns the first {@link Responder} that accepts the passed-in media type.
+     *
+     * @param mediaType the media type.
+     * @return {@link Responder} for the media type, or {@code null} if no Responder accepts it.
+     */
+    public Responder responderFor(final String mediaType) {
+        Optional<Responder> responder = mediaTypes.get(mediaType);
+        if (responder == null) {
+            responder = Optional.fromNullable(find(mediaType));
+            mediaTypes.putIfAbsent(mediaType, responder);
+        }
+        return responder.orNull();
+    }
+
+    /**
+     * Returns the registered {@link Responder}s, in order of precedence.
+     *
+     * @return {@code List<Responder>} the Responders.
+     */
+    public List<Responder> getResponders() {
+        return responders;
+    }
+
+    private Responder select(final Route route, final AcceptHeader acceptHeader) {
+        for (String mediaType : acceptHeader.negotiate(route.getProducedMediaTypes())) {
+            final Responder responder = responderFor(mediaType);
+            if (responder != null) {
+                return responder;
+            }
+        }
+        if (acceptHeader.acceptsAny() || acceptHeader.isEmpty()) {
+            return responderFor(MediaType.ANY.toString());
+        }
+        return null;
+    }
+
+    private Responder find(final String mediaType) {
+        for (Responder responder : responders) {
+            if (responder.accepts(mediaType)) {
+                return responder;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponderNegotiator[responders=" + responders + ", mediaTypes=" + mediaTypes.keySet() + "]";
+    }
+
+}
@@ -24,23 +24,26 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.jboss.aerogear.controller.log.LoggerMessages;
-import org.jboss.aerogear.controller.util.RequestUtils;
-import com.google.common.collect.Sets;
 
 /**
  * Handles responding from a Route invocation by delegating to the appropriate {@link Responder}.
+ * </p>
+ * The Responder is selected by a {@link ResponderNegotiator}, which indexes the Responders by media type when 
+ * Responders is created and caches the Responder negotiated for each route and Accept header.
  * 
  * @see Responder
  */
 public class Responders {
     
-    private final Set<Responder> responders = new LinkedHashSet<Responder>();
+    private final ResponderNegotiator negotiator;
     
     @Inject
     public Responders(final Instance<Responder> responders) {
+        final Set<Responder> ordered = new LinkedHashSet<Responder>();
         for (Responder responder : responders) {
-            this.responders.add(responder); 
+            ordered.add(responder); 
         }
+        this.negotiator = new ResponderNegotiator(ordered);
     }
     
     /**
@@ -48,7 +51,8 @@ public class Responders {
      * </p>
      * The {@link Responder} used to respond is determined by inspecting the HTTP 
      * Accept header values and matching these with the media types that the Route
-     * is capable of producing ({@link Route#produces()}) <br>
+     * is capable of producing ({@link Route#produces()}), in the order of preference
+     * specified by the quality values of the Accept header <br>
      * If no match is found for the values in the Accept header, or if the Accept
      * header was empty of "*&#47;*" then any Responder that accepts "*&#47;*" will 
      * be used to respond.
@@ -58,32 +62,18 @@ public class Responders {
      * @throws Exception if an exception is thrown while trying to respond.
      */
     public void respond(final RouteContext routeContext, final Object result) throws Exception {
-        final Set<String> acceptHeaders = RequestUtils.extractAcceptHeader(routeContext.getRequest());
-        for (String mediaType : Sets.intersection(routeContext.getRoute().produces(), acceptHeaders)) {
-            if (respond(mediaType, result, routeContext)) {
-                return;
-            }
-        }
-        if (acceptHeaders.contains(MediaType.ANY.toString()) || acceptHeaders.isEmpty()) {
-            respond(MediaType.ANY.toString(), result, routeContext);
-        } else {
+        final AcceptHeader acceptHeader = routeContext.getAcceptHeader();
+        final Responder responder = negotiator.negotiate(routeContext.getRoute(), acceptHeader);
+        if (responder != null) {
+            responder.respond(result, routeContext);
+        } else if (!acceptHeader.acceptsAny() && !acceptHeader.isEmpty()) {
             throw LoggerMessages.MESSAGES.noResponderForRequestedMediaType(routeContext.getRequest().getHeader("Accept"), this);
         }
     }
-
-    private boolean respond(final String mediaType, final Object result, final RouteContext routeContext) throws Exception {
-        for (Responder responder : responders) {
-            if (responder.accepts(mediaType)) {
-                responder.respond(result, routeContext);
-                return true;
-            }
-        }
-        return false;
-    }
     
     @Override
     public String toString() {
-        return "Responders[" + responders + "]";
+        return "Responders[" + negotiator.getResponders() + "]";
     }
 
 }
@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.parameter.ExtractionPlan;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 
 /**
@@ -26,6 +27,13 @@ public interface Route {
      */
     String getPath();
 
+    /**
+     * Gets the parsed {@link PathTemplate} of this Route's path.
+     * 
+     * @return the {@link PathTemplate}, or null if no path exists for this Route.
+     */
+    PathTemplate getPathTemplate();
+
     /**
      * Gets the {@link Method} of the target class for this Route.
      * 
@@ -33,6 +41,13 @@ public interface Route {
      */
     Method getTargetMethod();
 
+    /**
+     * Gets the {@link TargetInvoker} used to invoke the target method of this Route.
+     * 
+     * @return the target invoker, or null if this Route has no target method.
+     */
+    TargetInvoker getTargetInvoker();
+
     /**
      * Gets the target class for this Route
      * 
@@ -50,6 +65,16 @@ public interface Route {
      */
     boolean matches(RequestMethod method, String path, Set<String> acceptHeaders);
 
+    /**
+     * Determines if this Route can handle the {@link RequestMethod} and path combination.
+     * 
+     * @param method the http request methods.
+     * @param path the request path.
+     * @param acceptHeader the parsed Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     * @return {@code true} if this Route can handle the method and path passed in, {@code false} otherwise.
+     */
+    boolean matches(RequestMethod method, String path, AcceptHeader acceptHeader);
+
     /**
      * Determines if this Route's path is parameterized.
      * 
@@ -86,6 +111,13 @@ public interface Route {
      */
     boolean canHandle(Throwable throwable);
     
+    /**
+     * Returns the types of the {@link Throwable}s that this Route handles.
+     * 
+     * @return the {@link Throwable} types, or an empty set if this Route is not an error route.
+     */
+    Set<Class<? extends Throwable>> getThrowables();
+    
     /**
      * Returns the media types that this Route is capable of serving.
      * 
@@ -93,12 +125,26 @@ public interface Route {
      */
     Set<String> produces();
 
+    /**
+     * Returns the media types that this Route is capable of serving as a {@link MediaTypeSet}.
+     * 
+     * @return  the media types that this routes can produce.
+     */
+    MediaTypeSet getProducedMediaTypes();
+
     /**
      * Returns the Parameter's that this route accepts.
      * 
      * @return  the {@link Parameter}'s that this route accepts.
      */
     List<Parameter<?>> getParameters();
+
+    /**
+     * Returns the {@link ExtractionPlan} used to extract the arguments for the target method from a request.
+     * 
+     * @return  the {@link ExtractionPlan} compiled for this route's {@link Parameter}'s.
+     */
+    ExtractionPlan getExtractionPlan();
     
     /**
      * Returns the media types that this Route is capabile of consuming. 
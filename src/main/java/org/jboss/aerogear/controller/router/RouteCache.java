@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * RouteCache is a bounded, concurrent cache of route lookups performed by {@link Routes}.
+ * </p>
+ * Lookups are keyed on the {@link RequestMethod}, the request path and the media types accepted by the {@link AcceptHeader}. Lookups
+ * that did not find a {@link Route} are cached as well, so that a known miss is answered without consulting the
+ * route index. When the cache is full the least recently used entries are evicted.
+ * </p>
+ * A RouteCache belongs to a single {@link Routes} instance, so rebuilding the routes also discards the cache.
+ * 
+ * @see RouteCacheConfiguration
+ */
+public class RouteCache {
+    
+    private final Cache<Key, Optional<Route>> cache;
+    private final int maximumSize;
+    
+    RouteCache(final int maximumSize, final CacheLoader<Key, Optional<Route>> loader) {
+        this.maximumSize = maximumSize;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(loader);
+    }
+    
+    Route get(final RequestMethod method, final String path, final AcceptHeader acceptHeader) {
+        return cache.getUnchecked(new Key(method, path, acceptHeader)).orNull();
+    }
+    
+    /**
+     * Returns the number of lookups that were answered by the cache.
+     * 
+     * @return {@code long} the number of cache hits.
+     */
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+    
+    /**
+     * Returns the number of lookups that were not answered by the cache and had to consult the route index.
+     * 
+     * @return {@code long} the number of cache misses.
+     */
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+    
+    /**
+     * Returns the ratio of lookups that were answered by the cache.
+     * 
+     * @return {@code double} the hit rate, or 1.0 if no lookups have been performed.
+     */
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+    
+    /**
+     * Returns the number of lookups currently cached.
+     * 
+     * @return {@code long} the number of entries in the cache.
+     */
+    public long size() {
+        return cache.size();
+    }
+    
+    /**
+     * Discards all cached lookups.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    @Override
+    public String toString() {
+        return "RouteCache[maximumSize=" + maximumSize + ", size=" + size() + ", stats=" + cache.stats() + "]";
+    }
+    
+    static final class Key {
+        private final RequestMethod method;
+        private final String path;
+        private final AcceptHeader acceptHeader;
+        private final int hashCode;
+        
+        private Key(final RequestMethod method, final String path, final AcceptHeader acceptHeader) {
+            this.method = method;
+            this.path = path;
+            this.acceptHeader = acceptHeader;
+            this.hashCode = 31 * (31 * method.hashCode() + path.hashCode()) + acceptHeader.hashCode();
+        }
+        
+        RequestMethod getMethod() {
+            return method;
+        }
+        
+        String getPath() {
+            return path;
+        }
+        
+        AcceptHeader getAcceptHeader() {
+            return acceptHeader;
+        }
+        
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+        
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return method == other.method && path.equals(other.path) && acceptHeader.equals(other.acceptHeader);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * Concrete implementation of {@link RouteCacheConfiguration}.
+ */
+public class RouteCacheConfig implements RouteCacheConfiguration {
+    
+    private static final RouteCacheConfiguration DISABLED = new RouteCacheConfig(false, 0);
+    
+    private final boolean cacheEnabled;
+    private final int maximumSize;
+    
+    private RouteCacheConfig(final boolean cacheEnabled, final int maximumSize) {
+        this.cacheEnabled = cacheEnabled;
+        this.maximumSize = maximumSize;
+    }
+    
+    /**
+     * Returns a {@link RouteCacheConfiguration} that enables the route resolution cache.
+     * 
+     * @param maximumSize the maximum number of lookups that the cache will hold.
+     * @return {@link RouteCacheConfiguration} with the cache enabled.
+     * @throws IllegalArgumentException if maximumSize is not greater than zero.
+     */
+    public static RouteCacheConfiguration enableCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero, was: " + maximumSize);
+        }
+        return new RouteCacheConfig(true, maximumSize);
+    }
+    
+    public static RouteCacheConfiguration disableCache() {
+        return DISABLED;
+    }
+    
+    /**
+     * Returns a {@link RouteCacheConfiguration} instance with the default values, which has the cache disabled.
+     * 
+     * @return {@link RouteCacheConfiguration} with default properties set.
+     */
+    public static RouteCacheConfiguration defaultConfig() {
+        return disableCache();
+    }
+    
+    @Override
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+    
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+    
+    @Override
+    public String toString() {
+        return "RouteCacheConfiguration[cacheEnabled=" + cacheEnabled + ", maximumSize=" + maximumSize + "]";
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * Configuration for the route resolution cache of {@link Routes}.
+ * </p>
+ * To enable the cache an application can produce an instance of this type using CDI, for example:
+ * <pre>
+ * &#64;Produces
+ * public RouteCacheConfiguration routeCacheConfig() {
+ *     return RouteCacheConfig.enableCache(500);
+ * }
+ * </pre>
+ * 
+ * @see RouteCacheConfig
+ * @see RouteCache
+ */
+public interface RouteCacheConfiguration {
+    
+    /**
+     * Determines if the route resolution cache is enabled.
+     * 
+     * @return {@code true} if the cache is enabled, otherwise {@code false}.
+     */
+    boolean isCacheEnabled();
+    
+    /**
+     * Returns the maximum number of entries that the cache will hold.
+     * 
+     * @return {@code int} the maximum number of cached lookups.
+     */
+    int getMaximumSize();
+
+}
@@ -17,6 +17,8 @@
 
 package org.jboss.aerogear.controller.router;
 
+import java.util.Set;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -29,9 +31,11 @@ public class RouteContext {
     
     private final Route route;
     private final String requestPath;
+    private final AcceptHeader acceptHeader;
     private final HttpServletRequest request;
     private final HttpServletResponse response;
     private final Routes routes;
+    private PathVariables pathVariables;
     
     /**
      * Constructor.
@@ -46,8 +50,26 @@ public class RouteContext {
     }
     
     public RouteContext(final Route route, final String requestPath, final HttpServletRequest request, final HttpServletResponse response, final Routes routes) {
+        this(route, requestPath, RequestUtils.parseAcceptHeader(request), request, response, routes);
+    }
+    
+    /**
+     * Constructor that reuses the information already extracted from the request by a {@link RouteMatch}.
+     * 
+     * @param match the {@link RouteMatch} for the current request.
+     * @param request the {@link HttpServletRequest}.
+     * @param response the {@link HttpServletResponse}.
+     * @param routes the {@link Routes} to enables querying of information about configured routes.
+     */
+    public RouteContext(final RouteMatch match, final HttpServletRequest request, final HttpServletResponse response, final Routes routes) {
+        this(match.getRoute(), match.getRequestPath(), match.getAcceptHeader(), request, response, routes);
+    }
+    
+    public RouteContext(final Route route, final String requestPath, final AcceptHeader acceptHeader, 
+            final HttpServletRequest request, final HttpServletResponse response, final Routes routes) {
         this.route = route;
         this.requestPath = requestPath;
+        this.acceptHeader = acceptHeader;
         this.request = request;
         this.response = response;
         this.routes = routes;
@@ -70,6 +92,41 @@ public class RouteContext {
         return requestPath;
     }
 
+    /**
+     * Returns the variables captured from the request path by the current Route's {@link PathTemplate}.
+     * </p>
+     * The variables are captured the first time this method is called.
+     * 
+     * @return {@link PathVariables} the captured path variables, or {@link PathVariables#NONE} if the Route's
+     * path has no variables or does not match the request path.
+     */
+    public PathVariables getPathVariables() {
+        if (pathVariables == null) {
+            final PathTemplate pathTemplate = route.getPathTemplate();
+            final PathVariables variables = pathTemplate == null ? null : pathTemplate.match(requestPath);
+            pathVariables = variables == null ? PathVariables.NONE : variables;
+        }
+        return pathVariables;
+    }
+
+    /**
+     * Returns the values of the Accept header for the current request.
+     * 
+     * @return {@code Set<String>} the accept headers, or an empty set if none were provided.
+     */
+    public Set<String> getAcceptHeaders() {
+        return acceptHeader.getMediaTypes();
+    }
+
+    /**
+     * Returns the parsed Accept header for the current request.
+     * 
+     * @return {@link AcceptHeader} the Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     */
+    public AcceptHeader getAcceptHeader() {
+        return acceptHeader;
+    }
+
     /**
      * Returns the current {@link HttpServletRequest}.
      * 
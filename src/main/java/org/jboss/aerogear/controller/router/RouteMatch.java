@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * RouteMatch is the result of looking up a {@link Route} for a single request.
+ * </p>
+ * It carries the information extracted from the request while performing the lookup, that is the
+ * {@link RequestMethod}, the request path without the context path and the values of the Accept header,
+ * together with the matched {@link Route}. This allows the lookup to be performed once per request and
+ * shared by the {@link Router}, the {@link RouteContext} and the {@link Responders}.
+ */
+public class RouteMatch {
+
+    /**
+     * The name of the request attribute under which the RouteMatch for the current request is stored.
+     */
+    public static final String ATTRIBUTE_NAME = RouteMatch.class.getName();
+
+    private final Routes routes;
+    private final RequestMethod method;
+    private final String requestPath;
+    private final AcceptHeader acceptHeader;
+    private final Route route;
+
+    /**
+     * Constructor.
+     *
+     * @param method the HTTP {@link RequestMethod} of the request.
+     * @param requestPath the request path minus the context path.
+     * @param acceptHeaders the accept headers provided, or an empty set if none were provided.
+     * @param route the matched {@link Route}, or {@code null} if no route matched.
+     */
+    public RouteMatch(final RequestMethod method, final String requestPath, final Set<String> acceptHeaders, final Route route) {
+        this(method, requestPath, AcceptHeader.of(acceptHeaders), route);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param method the HTTP {@link RequestMethod} of the request.
+     * @param requestPath the request path minus the context path.
+     * @param acceptHeader the parsed Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     * @param route the matched {@link Route}, or {@code null} if no route matched.
+     */
+    public RouteMatch(final RequestMethod method, final String requestPath, final AcceptHeader acceptHeader, final Route route) {
+        this(null, method, requestPath, acceptHeader, route);
+    }
+
+    /**
+     * Constructor used by {@link Routes#match(RequestMethod, String, AcceptHeader)}.
+     *
+     * @param routes the {@link Routes} that the route was looked up in.
+     * @param method the HTTP {@link RequestMethod} of the request.
+     * @param requestPath the request path minus the context path.
+     * @param acceptHeader the parsed Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     * @param route the matched {@link Route}, or {@code null} if no route matched.
+     */
+    RouteMatch(final Routes routes, final RequestMethod method, final String requestPath, final AcceptHeader acceptHeader, final Route route) {
+        this.routes = routes;
+        this.method = method;
+        this.requestPath = requestPath;
+        this.acceptHeader = acceptHeader;
+        this.route = route;
+    }
+
+    /**
+     * Returns the RouteMatch previously stored in the passed-in request, if any.
+     * </p>
+     * A stored RouteMatch is only returned if it was looked up in the same {@link Routes} for the same method and
+     * request path as the current one, so that a request that has been forwarded or included does not pick up the
+     * match of the original request.
+     *
+     * @param request the {@link HttpServletRequest}.
+     * @param routes the {@link Routes} that the route is looked up in.
+     * @param method the HTTP {@link RequestMethod} of the request.
+     * @param requestPath the request path minus the context path.
+     * @return {@link RouteMatch} the stored match, or {@code null} if there is none for the request.
+     */
+    public static RouteMatch from(final HttpServletRequest request, final Routes routes, final RequestMethod method, 
+            final String requestPath) {
+        final Object stored = request.getAttribute(ATTRIBUTE_NAME);
+        if (stored instanceof RouteMatch) {
+            final RouteMatch match = (RouteMatch) stored;
+            if (match.routes == routes && match.method == method && match.requestPath.equals(requestPath)) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores this RouteMatch in the passed-in request so that subsequent lookups can reuse it.
+     *
+     * @param request the {@link HttpServletRequest}.
+     * @return {@link RouteMatch} this instance.
+     */
+    public RouteMatch storeIn(final HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE_NAME, this);
+        return this;
+    }
+
+    /**
+     * Returns the HTTP {@link RequestMethod} of the request.
+     *
+     * @return {@link RequestMethod} the method of the request.
+     */
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the request path minus the context path.
+     *
+     * @return {@code String} the request path minus the context path.
+     */
+    public String getRequestPath() {
+        return requestPath;
+    }
+
+    /**
+     * Returns the values of the Accept header of the request.
+     *
+     * @return {@code Set<String>} the accept headers, or an empty set if none were provided.
+     */
+    public Set<String> getAcceptHeaders() {
+        return acceptHeader.getMediaTypes();
+    }
+
+    /**
+     * Returns the parsed Accept header of the request.
+     *
+     * @return {@link AcceptHeader} the Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     */
+    public AcceptHeader getAcceptHeader() {
+        return acceptHeader;
+    }
+
+    /**
+     * Returns the matched {@link Route}.
+     *
+     * @return {@link Route} the matched route, or {@code null} if no route matched.
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Determines if a {@link Route} was matched.
+     *
+     * @return {@code true} if a route was matched, otherwise {@code false}.
+     */
+    public boolean hasRoute() {
+        return route != null;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMatch[method=" + method + ", requestPath=" + requestPath + ", acceptHeader=" + acceptHeader + ", route=" + route + "]";
+    }
+
+}
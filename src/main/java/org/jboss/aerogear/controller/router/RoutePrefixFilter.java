@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RoutePrefixFilter is a compact filter over the first path segments of all configured {@link Route}s, which
+ * enables requests that cannot possibly match a route, for example requests for images, stylesheets and scripts,
+ * to be rejected without consulting the routes.
+ * </p>
+ * The filter stores the hash codes of the first segments in a sorted array. Like a Bloom filter it can report
+ * false positives, which are then rejected by the actual route lookup, but never false negatives. If any route
+ * has a parameterized first segment, like '/{type}', every request path is reported as possibly routable.
+ */
+final class RoutePrefixFilter {
+    
+    private final int[] hashes;
+    private final boolean acceptAll;
+    
+    RoutePrefixFilter(final List<Route> routes) {
+        final int[] hashes = new int[routes.size()];
+        int count = 0;
+        boolean acceptAll = false;
+        for (Route route : routes) {
+            final String path = route.getPath();
+            if (path == null) {
+                continue;
+            }
+            final int start = firstSegmentStart(path);
+            final int end = firstSegmentEnd(path, start);
+            if (path.substring(start, end).indexOf('{') != -1) {
+                acceptAll = true;
+            }
+            hashes[count++] = hash(path, start, end);
+        }
+        this.hashes = Arrays.copyOf(hashes, count);
+        Arrays.sort(this.hashes);
+        this.acceptAll = acceptAll;
+    }
+    
+    /**
+     * Determines if the passed-in request path might be handled by one of the routes.
+     * 
+     * @param requestPath the request path minus the context path.
+     * @return {@code false} if no route can handle the request path, {@code true} if a route might handle it.
+     */
+    boolean mightMatch(final String requestPath) {
+        if (acceptAll) {
+            return true;
+        }
+        final int start = firstSegmentStart(requestPath);
+        return Arrays.binarySearch(hashes, hash(requestPath, start, firstSegmentEnd(requestPath, start))) >= 0;
+    }
+    
+    private static int firstSegmentStart(final String path) {
+        return path.length() > 0 && path.charAt(0) == '/' ? 1 : 0;
+    }
+    
+    private static int firstSegmentEnd(final String path, final int start) {
+        final int end = path.indexOf('/', start);
+        return end == -1 ? path.length() : end;
+    }
+    
+    /**
+     * Computes the same hash code as {@link String#hashCode()} for the region of the path, without creating a substring.
+     */
+    private static int hash(final String path, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RouteTrie is an index of the {@link Route}s that handle a single {@link RequestMethod}.
+ * </p>
+ * Routes with a path that is not parameterized, like '/cars', are stored in a hash table keyed by their path
+ * so that they can be found with a single lookup. Parameterized routes are stored in a trie keyed on the
+ * segments of their paths. Literal path segments, like 'cars' in '/cars/{id}', are stored as child nodes keyed
+ * by the segment itself, while parameterized segments, like '{id}', share a single wildcard child node. The trie
+ * is only consulted when the hash lookup misses, and a lookup only visits the nodes along the segments of the
+ * request path, so the cost of a lookup depends on the depth of the path and not on the number of configured routes.
+ * </p>
+ * When more than one route matches a request the one that was configured first is returned, which is the
+ * same first-match-wins behaviour as iterating over the routes in order.
+ */
+final class RouteTrie {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Route[] routes;
+    private final Map<String, List<Integer>> exactPaths = new HashMap<String, List<Integer>>();
+    private final Set<Integer> shadowed = new HashSet<Integer>();
+    private final Node root = new Node();
+
+    /**
+     * Constructs a RouteTrie for the routes that handle the passed-in {@link RequestMethod}.
+     * 
+     * @param routes all the configured routes, in the order they were configured.
+     * @param method the {@link RequestMethod} that this RouteTrie handles.
+     */
+    RouteTrie(final List<Route> routes, final RequestMethod method) {
+        this.routes = routes.toArray(new Route[routes.size()]);
+        for (int i = 0; i < this.routes.length; i++) {
+            final Route route = this.routes[i];
+            if (route.getPath() == null || !route.getMethods().contains(method)) {
+                continue;
+            }
+            if (route.isParameterized()) {
+                add(segments(route.getPath()), i);
+            } else {
+                addExactPath(route, i, method);
+            }
+        }
+    }
+
+    /**
+     * Returns the first configured {@link Route} that matches the passed-in {@link RequestMethod}/path/Accept combination.
+     *
+     * @param method the HTTP {@link RequestMethod}.
+     * @param path the request path.
+     * @param acceptHeader the parsed Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     * @return {@link Route} the matching route, or {@code null} if no route matched.
+     */
+    Route find(final RequestMethod method, final String path, final AcceptHeader acceptHeader) {
+        final int exact = findExactPath(method, path, acceptHeader);
+        if (exact != NO_MATCH && !shadowed.contains(exact)) {
+            return routes[exact];
+        }
+        final int index = Math.min(exact, find(root, segments(path), 0, method, path, acceptHeader));
+        return index == NO_MATCH ? null : routes[index];
+    }
+
+    private int findExactPath(final RequestMethod method, final String path, final AcceptHeader acceptHeader) {
+        final List<Integer> indexes = exactPaths.get(path);
+        if (indexes != null) {
+            for (Integer index : indexes) {
+                if (routes[index].matches(method, path, acceptHeader)) {
+                    return index;
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private int find(final Node node, final String[] segments, final int depth, final RequestMethod method,
+            final String path, final AcceptHeader acceptHeader) {
+        if (depth == segments.length) {
+            for (Integer index : node.routes) {
+                if (routes[index].matches(method, path, acceptHeader)) {
+                    return index;
+                }
+            }
+            return NO_MATCH;
+        }
+        final String segment = segments[depth];
+        int best = NO_MATCH;
+        final Node literal = node.literals.get(segment);
+        if (literal != null) {
+            best = find(literal, segments, depth + 1, method, path, acceptHeader);
+        }
+        if (node.wildcard != null && segment.length() > 0) {
+            best = Math.min(best, find(node.wildcard, segments, depth + 1, method, path, acceptHeader));
+        }
+        return best;
+    }
+
+    /**
+     * Adds a route with a path that is not parameterized. If a parameterized route that was configured earlier 
+     * also matches the path, the route is marked as shadowed so that lookups will also consult the trie.
+     */
+    private void addExactPath(final Route route, final int index, final RequestMethod method) {
+        List<Integer> indexes = exactPaths.get(route.getPath());
+        if (indexes == null) {
+            indexes = new ArrayList<Integer>();
+            exactPaths.put(route.getPath(), indexes);
+        }
+        indexes.add(index);
+        for (int i = 0; i < index; i++) {
+            final Route previous = routes[i];
+            if (previous.getPath() != null && previous.isParameterized() && previous.matches(method, route.getPath(), AcceptHeader.NONE)) {
+                shadowed.add(index);
+                return;
+            }
+        }
+    }
+
+    private void add(final String[] segments, final int index) {
+        Node node = root;
+        for (String segment : segments) {
+            node = isParameter(segment) ? node.wildcard() : node.literal(segment);
+        }
+        node.routes.add(index);
+    }
+
+    /**
+     * Splits the passed-in path into its segments. Empty segments are retained so that, for example,
+     * '/cars' and '/cars/' are treated as different paths.
+     *
+     * @param path the path to split.
+     * @return {@code String[]} the segments of the path.
+     */
+    private static String[] segments(final String path) {
+        return path.split("/", -1);
+    }
+
+    /**
+     * Determines if the passed-in path segment contains a parameter, for example '{id}'.
+     *
+     * @param segment the path segment.
+     * @return {@code true} if the segment is parameterized, otherwise {@code false}.
+     */
+    private static boolean isParameter(final String segment) {
+        return segment.indexOf('{') != -1;
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<String, Node>();
+        private final List<Integer> routes = new ArrayList<Integer>();
+        private Node wildcard;
+
+        private Node literal(final String segment) {
+            Node child = literals.get(segment);
+            if (child == null) {
+                child = new Node();
+                literals.put(segment, child);
+            }
+            return child;
+        }
+
+        private Node wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+
+}
@@ -5,9 +5,14 @@ import org.jboss.aerogear.controller.log.LoggerMessages;
 import org.jboss.aerogear.controller.router.error.ErrorRoute;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheLoader;
+
 /**
  * Routes is a collection of {@link Route} instances that are able to handle certain
  * {@link RequestMethod}/requestURI combinations.
@@ -17,12 +22,37 @@ import java.util.Set;
  */
 public class Routes {
 
-    private final List<Route> routes = new ArrayList<Route>();
+    private final List<Route> routes;
+    private final Map<RequestMethod, RouteTrie> routeTries;
+    private final RoutePrefixFilter prefixFilter;
+    private final ErrorRoutes errorRoutes;
+    private final RouteCache routeCache;
 
     private Routes(List<RouteBuilder> routeBuilders) {
+        routes = new ArrayList<Route>();
         for (RouteBuilder routeBuilder : routeBuilders) {
             routes.add(routeBuilder.build());
         }
+        routeTries = new EnumMap<RequestMethod, RouteTrie>(RequestMethod.class);
+        for (RequestMethod method : RequestMethod.values()) {
+            routeTries.put(method, new RouteTrie(routes, method));
+        }
+        prefixFilter = new RoutePrefixFilter(routes);
+        errorRoutes = new ErrorRoutes(routes);
+        routeCache = null;
+    }
+    
+    private Routes(Routes source, int maximumCacheSize) {
+        routes = source.routes;
+        routeTries = source.routeTries;
+        prefixFilter = source.prefixFilter;
+        errorRoutes = source.errorRoutes;
+        routeCache = new RouteCache(maximumCacheSize, new CacheLoader<RouteCache.Key, Optional<Route>>() {
+            @Override
+            public Optional<Route> load(RouteCache.Key key) {
+                return Optional.fromNullable(find(key.getMethod(), key.getPath(), key.getAcceptHeader()));
+            }
+        });
     }
 
     /**
@@ -45,6 +75,26 @@ public class Routes {
         return new Routes(routes);
     }
 
+    /**
+     * Returns a {@link Routes} instance with the same {@link Route}s as this instance, which caches 
+     * route lookups as specified by the passed-in {@link RouteCacheConfiguration}.
+     * 
+     * @param config the {@link RouteCacheConfiguration}.
+     * @return {@link Routes} with a new {@link RouteCache}, or this instance if the cache is disabled.
+     */
+    public Routes withCache(RouteCacheConfiguration config) {
+        return config.isCacheEnabled() ? new Routes(this, config.getMaximumSize()) : this;
+    }
+    
+    /**
+     * Returns the {@link RouteCache} used by this instance.
+     * 
+     * @return {@link RouteCache} the cache of route lookups, or {@code null} if caching is not enabled.
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
     @Override
     public String toString() {
         return "Routes{" +
@@ -52,6 +102,18 @@ public class Routes {
                 '}';
     }
 
+    /**
+     * Determines if a {@link Route} might exist for the passed-in request path by only inspecting its first 
+     * path segment. This is a cheap check that enables requests that no route can handle, like requests 
+     * for static resources, to be rejected without performing a route lookup.
+     * 
+     * @param requestURI the URI.
+     * @return {@code false} if there is definitely no {@link Route} for the URI, {@code true} if there might be one.
+     */
+    public boolean mightHaveRouteFor(String requestURI) {
+        return prefixFilter.mightMatch(requestURI);
+    }
+
     /**
      * Determines is there is a Route for the {@link RequestMethod}/URI combination.
      * 
@@ -62,12 +124,34 @@ public class Routes {
      */
     public boolean hasRouteFor(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
         AeroGearLogger.LOGGER.requestedRoute(method, requestURI);
-        for (Route route : routes) {
-            if (route.matches(method, requestURI, acceptHeaders)) {
-                return true;
-            }
-        }
-        return false;
+        return lookup(method, requestURI, AcceptHeader.of(acceptHeaders)) != null;
+    }
+
+    /**
+     * Looks up the {@link Route} for the {@link RequestMethod}/URI combination, returning the outcome as a 
+     * {@link RouteMatch} that can be shared by all the components handling the current request.
+     * 
+     * @param method the HTTP {@link RequestMethod}.
+     * @param requestURI the URI.
+     * @param acceptHeaders the accept headers provided, or an empty set if none were provided.
+     * @return {@link RouteMatch} containing the matched {@link Route}, or no route if there was no match.
+     */
+    public RouteMatch match(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
+        return match(method, requestURI, AcceptHeader.of(acceptHeaders));
+    }
+
+    /**
+     * Looks up the {@link Route} for the {@link RequestMethod}/URI combination, returning the outcome as a 
+     * {@link RouteMatch} that can be shared by all the components handling the current request.
+     * 
+     * @param method the HTTP {@link RequestMethod}.
+     * @param requestURI the URI.
+     * @param acceptHeader the parsed Accept header, or {@link AcceptHeader#NONE} if none was provided.
+     * @return {@link RouteMatch} containing the matched {@link Route}, or no route if there was no match.
+     */
+    public RouteMatch match(RequestMethod method, String requestURI, AcceptHeader acceptHeader) {
+        AeroGearLogger.LOGGER.requestedRoute(method, requestURI);
+        return new RouteMatch(this, method, requestURI, acceptHeader, lookup(method, requestURI, acceptHeader));
     }
 
     /**
@@ -80,14 +164,21 @@ public class Routes {
      * a RuntimeException if the specified RequestMethod/URI combination is not supported by this Routes instance.
      */
     public Route routeFor(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
-        for (Route route : routes) {
-            if (route.matches(method, requestURI, acceptHeaders)) {
-                return route;
-            }
+        final Route route = lookup(method, requestURI, AcceptHeader.of(acceptHeaders));
+        if (route != null) {
+            return route;
         }
         throw LoggerMessages.MESSAGES.routeNotFound(method, requestURI, acceptHeaders);
     }
     
+    private Route lookup(RequestMethod method, String requestURI, AcceptHeader acceptHeader) {
+        return routeCache == null ? find(method, requestURI, acceptHeader) : routeCache.get(method, requestURI, acceptHeader);
+    }
+    
+    private Route find(RequestMethod method, String requestURI, AcceptHeader acceptHeader) {
+        return routeTries.get(method).find(method, requestURI, acceptHeader);
+    }
+    
     /**
      * Returns the {@link Route} for the specified {@link Throwable}.
      * 
@@ -96,11 +187,6 @@ public class Routes {
      * or if no error route was specified a {@link ErrorRoute#DEFAULT} will be returned.
      */
     public Route routeFor(Throwable throwable) {
-        for (Route route : routes) {
-            if (route.canHandle(throwable)) {
-                return route;
-            }
-        }
-        return ErrorRoute.DEFAULT.getRoute();
+        return errorRoutes.routeFor(throwable);
     }
 }
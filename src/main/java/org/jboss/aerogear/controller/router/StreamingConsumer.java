@@ -0,0 +1,37 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Iterator;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * A StreamingConsumer is a {@link Consumer} that can also unmarshall a request body that holds a sequence of 
+ * elements, for example a JSON array, lazily.
+ * </p>
+ * The elements are read from the request body one at a time as the returned {@link Iterator} is advanced, so the
+ * whole sequence is never held in memory. The Iterator should also implement {@link java.io.Closeable} if it holds 
+ * resources that must be released when the controller does not read all the elements.
+ */
+public interface StreamingConsumer extends Consumer {
+    
+    <T> Iterator<T> unmarshallElements(HttpServletRequest request, Class<T> elementType);
+
+}
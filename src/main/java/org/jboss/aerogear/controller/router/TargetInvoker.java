@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+
+/**
+ * A TargetInvoker invokes the target method of a {@link Route} on an instance of the Route's target class.
+ * </p>
+ * The invoker is created once, when the Route is built. For public methods of public classes it uses a class 
+ * generated by cglib's {@link FastClass}, which invokes the method directly by its index instead of going through 
+ * reflection, avoiding the access checks performed by {@link Method#invoke(Object, Object...)} on every call. 
+ * For other methods the invoker falls back to reflection.
+ * </p>
+ * Like {@link Method#invoke(Object, Object...)}, exceptions thrown by the target method are wrapped in an
+ * {@link InvocationTargetException}.
+ */
+public abstract class TargetInvoker {
+    
+    /**
+     * Creates a TargetInvoker for the passed-in method.
+     * 
+     * @param targetClass the class that declares, or inherits, the method.
+     * @param method the {@link Method} to invoke.
+     * @return {@link TargetInvoker} for the method.
+     */
+    public static TargetInvoker forMethod(final Class<?> targetClass, final Method method) {
+        if (Modifier.isPublic(targetClass.getModifiers()) && Modifier.isPublic(method.getModifiers())) {
+            try {
+                return new FastInvoker(FastClass.create(targetClass.getClassLoader(), targetClass).getMethod(method));
+            } catch (final RuntimeException e) {
+                // fall back to reflection if the class cannot be generated, for example due to class loader restrictions
+            }
+        }
+        return new ReflectionInvoker(method);
+    }
+    
+    /**
+     * Invokes the target method.
+     * 
+     * @param target the instance to invoke the method on.
+     * @param arguments the arguments to pass to the method.
+     * @return {@code Object} the value returned by the method, or {@code null} if the method is void.
+     * @throws InvocationTargetException if the method threw an exception.
+     * @throws IllegalAccessException if the method is not accessible.
+     */
+    public abstract Object invoke(Object target, Object... arguments) throws InvocationTargetException, IllegalAccessException;
+    
+    private static class FastInvoker extends TargetInvoker {
+        private final FastMethod method;
+        
+        private FastInvoker(final FastMethod method) {
+            this.method = method;
+        }
+        
+        @Override
+        public Object invoke(final Object target, final Object... arguments) throws InvocationTargetException {
+            return method.invoke(target, arguments);
+        }
+        
+        @Override
+        public String toString() {
+            return "FastInvoker[" + method.getJavaMethod() + "]";
+        }
+    }
+    
+    private static class ReflectionInvoker extends TargetInvoker {
+        private final Method method;
+        
+        private ReflectionInvoker(final Method method) {
+            this.method = method;
+        }
+        
+        @Override
+        public Object invoke(final Object target, final Object... arguments) throws InvocationTargetException, IllegalAccessException {
+            return method.invoke(target, arguments);
+        }
+        
+        @Override
+        public String toString() {
+            return "ReflectionInvoker[" + method + "]";
+        }
+    }
+
+}
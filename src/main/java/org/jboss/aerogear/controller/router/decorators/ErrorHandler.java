@@ -17,8 +17,6 @@
 
 package org.jboss.aerogear.controller.router.decorators;
 
-import java.lang.reflect.Method;
-
 import javax.decorator.Decorator;
 import javax.decorator.Delegate;
 import javax.enterprise.inject.spi.BeanManager;
@@ -30,6 +28,7 @@ import org.jboss.aerogear.controller.router.Responders;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.TargetInvoker;
 import org.jboss.aerogear.controller.router.error.ErrorRoute;
 import org.jboss.aerogear.controller.spi.HttpStatusAwareException;
 
@@ -69,7 +68,8 @@ public class ErrorHandler implements RouteProcessor {
             }
             final Throwable rootCause = Throwables.getRootCause(t);
             final Route errorRoute = routeContext.getRoutes().routeFor(rootCause);
-            final RouteContext errorContext = new RouteContext(errorRoute, routeContext.getRequest(), routeContext.getResponse(), routeContext.getRoutes());
+            final RouteContext errorContext = new RouteContext(errorRoute, routeContext.getRequestPath(), routeContext.getAcceptHeader(),
+                    routeContext.getRequest(), routeContext.getResponse(), routeContext.getRoutes());
             final Object result = invokeErrorRoute(errorContext, rootCause);
             routeContext.getRequest().setAttribute(ErrorRoute.DEFAULT.getExceptionAttrName(), rootCause);
             responders.respond(errorContext, result);
@@ -79,15 +79,19 @@ public class ErrorHandler implements RouteProcessor {
     private Object invokeErrorRoute(final RouteContext routeContext, final Throwable t) throws ServletException {
         final Route errorRoute = routeContext.getRoute();
         Object response = null;
+        Object controller = null;
         try {
-            final Method targetMethod = errorRoute.getTargetMethod();
-            if (targetMethod.getParameterTypes().length == 0) {
-                response =  targetMethod.invoke(getController(errorRoute));
+            final TargetInvoker invoker = errorRoute.getTargetInvoker();
+            controller = getController(errorRoute);
+            if (errorRoute.getTargetMethod().getParameterTypes().length == 0) {
+                response = invoker.invoke(controller);
             } else {
-                response = targetMethod.invoke(getController(errorRoute), t);
+                response = invoker.invoke(controller, t);
             }
         } catch (final Exception e) {
             throw new ServletException(e.getMessage(), e);
+        } finally {
+            controllerFactory.releaseController(errorRoute.getTargetClass(), controller);
         }
         return response != null ? response : t;
     }
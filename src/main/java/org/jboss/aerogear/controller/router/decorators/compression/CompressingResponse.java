@@ -0,0 +1,398 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * CompressingResponse is an {@link HttpServletResponseWrapper} that compresses the response body with a
+ * {@link ContentEncoding}.
+ * </p>
+ * The first bytes of the body, up to the minimum size, are buffered. If the whole body fits in the buffer it is sent
+ * uncompressed with a Content-Length by {@link #finish()}. Once the body outgrows the buffer the Content-Encoding
+ * header is set and the buffered bytes and everything written after them are compressed to the wrapped response's
+ * OutputStream. Content-Length headers set while processing the request are dropped, as they would not match the
+ * length of the compressed body.
+ * </p>
+ * The {@link Deflater} of Java 6 cannot be told to flush, it holds on to the input it has not compressed yet until it
+ * has enough of it or is finished. {@link #flushBuffer()} can therefore not push the data written so far to the
+ * client once compression has started. A response that is flushed before it outgrows the buffer, like the streamed
+ * responses of the REST responders, is sent uncompressed instead so that it is not stalled. A response flushed after
+ * compression has started only gets the compressed data the Deflater has produced so far.
+ * </p>
+ * A body with a Content-Encoding set by the application is passed through as is, and so is an error or a redirect
+ * sent before compression has started, which discards the buffered bytes.
+ * </p>
+ * The buffer and the chunk the compressed data is written from are reused by the responses processed on the same
+ * thread, like the {@link Deflater} of the {@link ContentEncoding}.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+    private static final int CHUNK_SIZE = 8192;
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<byte[]>();
+    private static final ThreadLocal<byte[]> CHUNKS = new ThreadLocal<byte[]>();
+
+    private final ContentEncoding encoding;
+    private final int minimumSize;
+    private byte[] buffer;
+    private int count;
+    private boolean passThrough;
+    private boolean finished;
+    private ServletOutputStream out;
+    private Deflater deflater;
+    private CRC32 crc;
+    private byte[] chunk;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Constructs a CompressingResponse.
+     *
+     * @param response the {@link HttpServletResponse} to write the compressed body to.
+     * @param encoding the {@link ContentEncoding} to compress the body with.
+     * @param minimumSize the minimum size in bytes of a body for it to be compressed.
+     */
+    CompressingResponse(final HttpServletResponse response, final ContentEncoding encoding, final int minimumSize) {
+        super(response);
+        this.encoding = encoding;
+        this.minimumSize = minimumSize;
+        this.buffer = acquire(BUFFERS, minimumSize);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+        if (passThrough) {
+            super.setContentLength(length);
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (isContentLength(name)) {
+            return;
+        }
+        checkContentEncoding(name);
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (isContentLength(name)) {
+            return;
+        }
+        checkContentEncoding(name);
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        if (!isContentLength(name)) {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        if (!isContentLength(name)) {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    /**
+     * Flushes the body written so far to the client. If compression has not started yet the response is not
+     * compressed at all, and the buffered bytes and everything written after them are passed through as is.
+     */
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!finished) {
+            if (deflater == null) {
+                passThrough = true;
+            }
+            writeBuffer();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Discards the buffered bytes and sends the error uncompressed.
+     *
+     * @throws IllegalStateException if compression has already started.
+     */
+    @Override
+    public void sendError(final int status) throws IOException {
+        discardBuffer();
+        super.sendError(status);
+    }
+
+    /**
+     * Discards the buffered bytes and sends the error uncompressed.
+     *
+     * @throws IllegalStateException if compression has already started.
+     */
+    @Override
+    public void sendError(final int status, final String message) throws IOException {
+        discardBuffer();
+        super.sendError(status, message);
+    }
+
+    /**
+     * Discards the buffered bytes and sends the redirect uncompressed.
+     *
+     * @throws IllegalStateException if compression has already started.
+     */
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        discardBuffer();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void resetBuffer() {
+        checkNotStarted();
+        count = 0;
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        checkNotStarted();
+        count = 0;
+        passThrough = false;
+        super.reset();
+    }
+
+    /**
+     * Completes the body. A body that fits in the buffer is written uncompressed, otherwise the remaining compressed
+     * data and, for gzip, the trailer are written. Calling finish more than once has no effect.
+     *
+     * @throws IOException if writing to the wrapped response fails.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        finished = true;
+        if (deflater != null) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            if (crc != null) {
+                writeInt((int) crc.getValue());
+                writeInt((int) deflater.getBytesRead());
+            }
+            release();
+        } else if (!passThrough && count > 0) {
+            super.setContentLength(count);
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Hands back the {@link Deflater} and the buffers. If the body has not been finished, for example when processing
+     * the request failed, nothing more is written to the response.
+     */
+    void release() {
+        finished = true;
+        if (deflater != null) {
+            encoding.release(deflater);
+            deflater = null;
+        }
+        if (buffer != null) {
+            release(BUFFERS, buffer);
+            buffer = null;
+        }
+        if (chunk != null) {
+            release(CHUNKS, chunk);
+            chunk = null;
+        }
+    }
+
+    /**
+     * Returns the buffer of the current thread if it is at least as large as the passed-in size, or a new one.
+     */
+    private static byte[] acquire(final ThreadLocal<byte[]> buffers, final int size) {
+        final byte[] buffer = buffers.get();
+        if (buffer == null || buffer.length < size) {
+            return new byte[size];
+        }
+        buffers.remove();
+        return buffer;
+    }
+
+    /**
+     * Keeps the passed-in buffer for the next response on the current thread, unless the thread already has a
+     * larger one.
+     */
+    private static void release(final ThreadLocal<byte[]> buffers, final byte[] buffer) {
+        final byte[] current = buffers.get();
+        if (current == null || current.length < buffer.length) {
+            buffers.set(buffer);
+        }
+    }
+
+    private void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (finished) {
+            throw new IOException("Response has already been finished");
+        }
+        if (deflater != null) {
+            compress(bytes, offset, length);
+        } else if (passThrough) {
+            writeBuffer();
+            out().write(bytes, offset, length);
+        } else if (count + length <= minimumSize) {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        } else {
+            startCompression();
+            compress(bytes, offset, length);
+        }
+    }
+
+    private void startCompression() throws IOException {
+        super.setHeader(CONTENT_ENCODING, encoding.getToken());
+        deflater = encoding.acquire();
+        chunk = acquire(CHUNKS, CHUNK_SIZE);
+        if (encoding == ContentEncoding.GZIP) {
+            crc = new CRC32();
+            out().write(GZIP_HEADER);
+        }
+        if (count > 0) {
+            compress(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void compress(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (crc != null) {
+            crc.update(bytes, offset, length);
+        }
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    private void deflate() throws IOException {
+        final int length = deflater.deflate(chunk, 0, chunk.length);
+        if (length > 0) {
+            out().write(chunk, 0, length);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (count > 0) {
+            out().write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void writeInt(final int value) throws IOException {
+        final ServletOutputStream out = out();
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    private ServletOutputStream out() throws IOException {
+        if (out == null) {
+            out = getResponse().getOutputStream();
+        }
+        return out;
+    }
+
+    private void checkContentEncoding(final String name) {
+        if (CONTENT_ENCODING.equalsIgnoreCase(name)) {
+            checkNotStarted();
+            passThrough = true;
+        }
+    }
+
+    private void discardBuffer() {
+        checkNotStarted();
+        count = 0;
+        passThrough = true;
+    }
+
+    private void checkNotStarted() {
+        if (deflater != null || finished) {
+            throw new IllegalStateException("Compressed response has already been committed");
+        }
+    }
+
+    private boolean isContentLength(final String name) {
+        return !passThrough && CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(final int b) throws IOException {
+            single[0] = (byte) b;
+            CompressingResponse.this.write(single, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            CompressingResponse.this.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+/**
+ * Concrete implementation of {@link CompressionConfiguration}.
+ *
+ * @see CompressionHandler
+ */
+public class CompressionConfig implements CompressionConfiguration {
+
+    private static final CompressionConfiguration DISABLED = new CompressionConfig(false, 0);
+
+    private final boolean compressionEnabled;
+    private final int minimumSize;
+
+    private CompressionConfig(final boolean compressionEnabled, final int minimumSize) {
+        this.compressionEnabled = compressionEnabled;
+        this.minimumSize = minimumSize;
+    }
+
+    /**
+     * Returns a {@link CompressionConfiguration} that enables compression of responses.
+     *
+     * @param minimumSize the minimum size in bytes of a response body for it to be compressed.
+     * @return {@link CompressionConfiguration} with compression enabled.
+     * @throws IllegalArgumentException if minimumSize is negative.
+     */
+    public static CompressionConfiguration enableCompression(final int minimumSize) {
+        if (minimumSize < 0) {
+            throw new IllegalArgumentException("minimumSize must not be negative, was: " + minimumSize);
+        }
+        return new CompressionConfig(true, minimumSize);
+    }
+
+    public static CompressionConfiguration disableCompression() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns a {@link CompressionConfiguration} instance with the default values, which has compression disabled.
+     *
+     * @return {@link CompressionConfiguration} with default properties set.
+     */
+    public static CompressionConfiguration defaultConfig() {
+        return disableCompression();
+    }
+
+    @Override
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    @Override
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionConfiguration[compressionEnabled=" + compressionEnabled + ", minimumSize=" + minimumSize + "]";
+    }
+
+}
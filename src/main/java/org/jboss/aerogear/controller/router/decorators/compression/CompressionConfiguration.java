@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+/**
+ * Configuration for the compression of responses by {@link CompressionHandler}.
+ * </p>
+ * Compression is disabled by default. To enable it an application can produce an instance of this type using CDI,
+ * for example:
+ * <pre>
+ * &#64;Produces
+ * public CompressionConfiguration compressionConfig() {
+ *     return CompressionConfig.enableCompression(1024);
+ * }
+ * </pre>
+ *
+ * @see CompressionConfig
+ */
+public interface CompressionConfiguration {
+
+    /**
+     * Determines if responses are compressed for clients that accept gzip or deflate encoded responses.
+     *
+     * @return {@code true} if compression is enabled.
+     */
+    boolean isCompressionEnabled();
+
+    /**
+     * Returns the minimum size of a response body for it to be compressed. Smaller bodies are sent uncompressed,
+     * as compressing them costs more than it saves.
+     *
+     * @return {@code int} the minimum size in bytes.
+     */
+    int getMinimumSize();
+
+}
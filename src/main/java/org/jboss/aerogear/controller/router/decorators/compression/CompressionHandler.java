@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+
+/**
+ * CompressionHandler is a CDI Decorator that decorates a {@link RouteProcessor} and compresses the responses written
+ * by the {@link org.jboss.aerogear.controller.router.Responder}s, both the REST responders and the forwards to views.
+ * </p>
+ * The encoding is negotiated from the Accept-Encoding header of the request, preferring gzip over deflate, and
+ * responses smaller than the configured minimum size are sent uncompressed. As the response depends on the
+ * Accept-Encoding header, a 'Vary: Accept-Encoding' header is added to every response while compression is enabled.
+ * </p>
+ * Compressed data cannot be flushed to the client before the body is complete, as Java 6 has no sync flush for a
+ * {@link java.util.zip.Deflater}. Responses that are flushed while they are being written, for example streamed
+ * responses, are therefore sent uncompressed if they are flushed before they outgrow the minimum size, see
+ * {@link CompressingResponse}.
+ * </p>
+ * Compression is disabled unless the application produces a {@link CompressionConfiguration}.
+ *
+ * @see CompressionConfig
+ */
+@Decorator
+public class CompressionHandler implements RouteProcessor {
+
+    private final RouteProcessor delegate;
+    private final CompressionConfiguration config;
+
+    /**
+     * Sole constructor which will have its parameters injected by CDI.
+     *
+     * @param delegate the target {@link RouteProcessor}.
+     * @param configInstance the {@link CompressionConfiguration}, which is optional.
+     */
+    @Inject
+    public CompressionHandler(final @Delegate RouteProcessor delegate, final Instance<CompressionConfiguration> configInstance) {
+        this.delegate = delegate;
+        this.config = configInstance.isUnsatisfied() ? CompressionConfig.defaultConfig() : configInstance.get();
+    }
+
+    /**
+     * Delegates to the target {@link RouteProcessor} with the response wrapped in a compressing response if the
+     * client accepts a supported encoding.
+     */
+    @Override
+    public void process(final RouteContext routeContext) throws Exception {
+        if (!config.isCompressionEnabled()) {
+            delegate.process(routeContext);
+            return;
+        }
+        final HttpServletResponse response = routeContext.getResponse();
+        response.addHeader("Vary", "Accept-Encoding");
+        final ContentEncoding encoding = ContentEncoding.negotiate(routeContext.getRequest().getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            delegate.process(routeContext);
+            return;
+        }
+        final CompressingResponse compressingResponse = new CompressingResponse(response, encoding, config.getMinimumSize());
+        try {
+            delegate.process(new RouteContext(routeContext.getRoute(), routeContext.getRequestPath(), routeContext.getAcceptHeader(),
+                    routeContext.getRequest(), compressingResponse, routeContext.getRoutes()));
+            compressingResponse.finish();
+        } finally {
+            compressingResponse.release();
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * The content encodings that responses can be compressed with.
+ * </p>
+ * Each encoding keeps a {@link Deflater} per thread that is reset and reused by the requests processed on that
+ * thread, instead of allocating the native memory of a new Deflater for every response.
+ */
+enum ContentEncoding {
+
+    /**
+     * Raw deflate data wrapped in a gzip header and trailer, which are written by {@link CompressingResponse}.
+     */
+    GZIP("gzip", true),
+
+    /**
+     * Deflate data in the zlib format, as the 'deflate' content coding is defined.
+     */
+    DEFLATE("deflate", false);
+
+    private final String token;
+    private final boolean nowrap;
+    private final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>();
+
+    private ContentEncoding(final String token, final boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * Returns the name of this encoding as used in the Accept-Encoding and Content-Encoding headers.
+     */
+    String getToken() {
+        return token;
+    }
+
+    /**
+     * Returns the {@link Deflater} of the current thread, or a new one if it is in use.
+     *
+     * @return {@link Deflater} which must be handed back with {@link #release(Deflater)}.
+     */
+    Deflater acquire() {
+        final Deflater deflater = deflaters.get();
+        if (deflater == null) {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+        }
+        deflaters.remove();
+        return deflater;
+    }
+
+    /**
+     * Resets the passed-in {@link Deflater} and keeps it for the next response on the current thread. If the thread
+     * already has one, the passed-in Deflater is ended to free its native memory right away.
+     */
+    void release(final Deflater deflater) {
+        if (deflaters.get() == null) {
+            deflater.reset();
+            deflaters.set(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Chooses the encoding to compress a response with from the passed-in Accept-Encoding header.
+     * </p>
+     * The encoding with the highest quality value is chosen, and gzip is preferred over deflate when both have the
+     * same quality. Encodings with a quality of zero are not acceptable, and '*' stands for any encoding that is not
+     * listed explicitly.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header, may be {@code null}.
+     * @return {@link ContentEncoding} the chosen encoding, or {@code null} if the response should not be compressed.
+     */
+    static ContentEncoding negotiate(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            final int semicolon = element.indexOf(';');
+            final String coding = (semicolon == -1 ? element : element.substring(0, semicolon)).trim().toLowerCase(Locale.ENGLISH);
+            final float quality = semicolon == -1 ? 1 : quality(element.substring(semicolon + 1));
+            if (GZIP.token.equals(coding) || "x-gzip".equals(coding)) {
+                gzip = Math.max(gzip, quality);
+            } else if (DEFLATE.token.equals(coding)) {
+                deflate = Math.max(deflate, quality);
+            } else if ("*".equals(coding)) {
+                any = quality;
+            }
+        }
+        if (gzip == -1) {
+            gzip = any;
+        }
+        if (deflate == -1) {
+            deflate = any;
+        }
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static float quality(final String parameters) {
+        for (String parameter : parameters.split(";")) {
+            final String[] nameValue = parameter.split("=", 2);
+            if (nameValue.length == 2 && "q".equalsIgnoreCase(nameValue[0].trim())) {
+                try {
+                    return Float.parseFloat(nameValue[1].trim());
+                } catch (final NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+/**
+ * A Converter converts the String value of a request, header, cookie or path parameter into the 
+ * type of the target endpoint method parameter.
+ * 
+ * @param T the type that this converter produces.
+ * @see Converters
+ */
+public interface Converter<T> {
+    
+    /**
+     * Converts the passed-in value.
+     * 
+     * @param value the String value of the parameter.
+     * @return {@code T} the converted value.
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    T convert(String value);
+
+}
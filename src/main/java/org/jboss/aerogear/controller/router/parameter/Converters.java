@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Converters provides the {@link Converter}s for the parameter types supported out of the box, which are 
+ * {@code String}, the primitive types and their wrappers, {@code UUID}, {@code BigDecimal} and {@code BigInteger}.
+ * </p>
+ * The Converter for a parameter is looked up once when the {@link RequestParameter} is created, and not for every request.
+ */
+public final class Converters {
+    
+    private static final Map<Class<?>, Converter<?>> CONVERTERS = new HashMap<Class<?>, Converter<?>>();
+    
+    static {
+        register(new Converter<String>() {
+            @Override
+            public String convert(final String value) {
+                return value;
+            }
+        }, String.class);
+        register(new Converter<Long>() {
+            @Override
+            public Long convert(final String value) {
+                return Long.valueOf(value);
+            }
+        }, Long.class, long.class);
+        register(new Converter<Integer>() {
+            @Override
+            public Integer convert(final String value) {
+                return Integer.valueOf(value);
+            }
+        }, Integer.class, int.class);
+        register(new Converter<Short>() {
+            @Override
+            public Short convert(final String value) {
+                return Short.valueOf(value);
+            }
+        }, Short.class, short.class);
+        register(new Converter<Byte>() {
+            @Override
+            public Byte convert(final String value) {
+                return Byte.valueOf(value);
+            }
+        }, Byte.class, byte.class);
+        register(new Converter<Double>() {
+            @Override
+            public Double convert(final String value) {
+                return Double.valueOf(value);
+            }
+        }, Double.class, double.class);
+        register(new Converter<Float>() {
+            @Override
+            public Float convert(final String value) {
+                return Float.valueOf(value);
+            }
+        }, Float.class, float.class);
+        register(new Converter<Boolean>() {
+            @Override
+            public Boolean convert(final String value) {
+                return Boolean.valueOf(value);
+            }
+        }, Boolean.class, boolean.class);
+        register(new Converter<Character>() {
+            @Override
+            public Character convert(final String value) {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException("Expected a single character but was '" + value + "'");
+                }
+                return value.charAt(0);
+            }
+        }, Character.class, char.class);
+        register(new Converter<UUID>() {
+            @Override
+            public UUID convert(final String value) {
+                return UUID.fromString(value);
+            }
+        }, UUID.class);
+        register(new Converter<BigDecimal>() {
+            @Override
+            public BigDecimal convert(final String value) {
+                return new BigDecimal(value);
+            }
+        }, BigDecimal.class);
+        register(new Converter<BigInteger>() {
+            @Override
+            public BigInteger convert(final String value) {
+                return new BigInteger(value);
+            }
+        }, BigInteger.class);
+    }
+    
+    private Converters() {
+    }
+    
+    private static void register(final Converter<?> converter, final Class<?>... types) {
+        for (Class<?> type : types) {
+            CONVERTERS.put(type, converter);
+        }
+    }
+    
+    /**
+     * Returns the {@link Converter} for the passed-in type.
+     * 
+     * @param type the type of the target endpoint method parameter.
+     * @return {@link Converter} for the type, or {@code null} if there is no converter for the type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Converter<T> forType(final Class<T> type) {
+        return (Converter<T>) CONVERTERS.get(type);
+    }
+    
+    /**
+     * Returns the {@link Converter} for the type of a parameter, failing if the String value of the parameter
+     * cannot be converted to that type.
+     * 
+     * @param name the name of the parameter.
+     * @param type the type of the target endpoint method parameter.
+     * @return {@link Converter} for the type, or {@code null} if the type is a supertype of {@code String}, like 
+     * {@code Object}, in which case the String value is used as is.
+     * @throws IllegalArgumentException if there is no converter for the type.
+     */
+    public static <T> Converter<T> forParameter(final String name, final Class<T> type) {
+        final Converter<T> converter = forType(type);
+        if (converter == null && !type.isAssignableFrom(String.class)) {
+            throw new IllegalArgumentException("No Converter for type '" + type.getName() + "' of parameter '" + name + "'");
+        }
+        return converter;
+    }
+
+}
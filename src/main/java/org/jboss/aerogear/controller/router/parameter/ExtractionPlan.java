@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.aerogear.controller.log.LoggerMessages;
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+import br.com.caelum.iogi.reflection.Target;
+
+/**
+ * ExtractionPlan extracts the arguments for the target method of a {@link Route} from the current request.
+ * </p>
+ * The plan is compiled once, when the Route is built, into one extractor per {@link Parameter}. Each extractor
+ * has everything it needs to extract its argument precomputed, like the name, default value and {@link Converter} 
+ * of a {@link RequestParameter}, or the Iogi target of an entity parameter, and writes the argument directly 
+ * into the array passed to the target method. The request parameters, headers and cookies are read through a 
+ * {@link RequestValues} that is shared by the extractors of a single extraction.
+ */
+public final class ExtractionPlan {
+    
+    private final Extractor[] extractors;
+    
+    private ExtractionPlan(final Extractor[] extractors) {
+        this.extractors = extractors;
+    }
+    
+    /**
+     * Compiles an ExtractionPlan for the passed-in parameters.
+     * 
+     * @param parameters the {@link Parameter}s of the target method, in the order of the method's parameters.
+     * @param targetMethod the target method, or {@code null} if the parameter types should be used as is.
+     * @return {@link ExtractionPlan} that extracts an argument for each parameter.
+     */
+    public static ExtractionPlan compile(final List<Parameter<?>> parameters, final Method targetMethod) {
+        final Class<?>[] parameterTypes = targetMethod == null ? new Class<?>[0] : targetMethod.getParameterTypes();
+        final Extractor[] extractors = new Extractor[parameters.size()];
+        for (int i = 0; i < extractors.length; i++) {
+            final Parameter<?> parameter = parameters.get(i);
+            switch (parameter.getParameterType()) {
+            case ENTITY:
+                if (parameter instanceof StreamingParameter) {
+                    extractors[i] = new StreamingExtractor((StreamingParameter<?>) parameter);
+                } else {
+                    final Class<?> type = i < parameterTypes.length ? parameterTypes[i] : parameter.getType();
+                    extractors[i] = new EntityExtractor(parameter, type);
+                }
+                break;
+            case REQUEST:
+                if (parameter instanceof MultiValuedParameter) {
+                    extractors[i] = new MultiValuedExtractor((MultiValuedParameter<?>) parameter);
+                } else {
+                    extractors[i] = new RequestExtractor((RequestParameter<?>) parameter);
+                }
+                break;
+            }
+        }
+        return new ExtractionPlan(extractors);
+    }
+    
+    /**
+     * Extracts the arguments from the current request.
+     * 
+     * @param routeContext the {@link RouteContext}.
+     * @param consumers the {@link Consumer}s keyed by the media type they consume.
+     * @return {@code Object[]} an array of Object matching the route targets parameters.
+     */
+    public Object[] extractArguments(final RouteContext routeContext, final Map<String, Consumer> consumers) {
+        final RequestValues values = new RequestValues(routeContext.getRequest());
+        final Object[] arguments = new Object[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            arguments[i] = extractors[i].extract(routeContext, values, consumers);
+        }
+        return arguments;
+    }
+    
+    private abstract static class Extractor {
+        abstract Object extract(RouteContext routeContext, RequestValues values, Map<String, Consumer> consumers);
+    }
+    
+    /**
+     * Unmarshalls an entity from the body of the request if the route consumes the Content-Type of the request and
+     * there is a {@link Consumer} for it. Otherwise, for example for form submissions, the entity is instantiated from
+     * the request parameters using Iogi, or if there are none matching the entity, from the body of the request.
+     */
+    private static class EntityExtractor extends Extractor {
+        private final Parameter<?> parameter;
+        private final Class<?> type;
+        private final Target<?> target;
+        
+        private EntityExtractor(final Parameter<?> parameter, final Class<?> type) {
+            this.parameter = parameter;
+            this.type = type;
+            this.target = Parameters.targetFor(type);
+        }
+        
+        @Override
+        Object extract(final RouteContext routeContext, final RequestValues values, final Map<String, Consumer> consumers) {
+            final String contentType = RequestUtils.extractContentType(routeContext.getRequest());
+            final Consumer consumer = Parameters.consumerForContentType(routeContext, contentType, consumers);
+            if (consumer != null) {
+                return consumer.unmarshall(routeContext.getRequest(), type);
+            }
+            final Object entity = Parameters.instantiate(target, values.parameters());
+            return entity != null ? entity : Parameters.extractBody(routeContext, consumer, parameter, type, consumers);
+        }
+    }
+    
+    /**
+     * Extracts an Iterator over the elements of the body of the request for a {@link StreamingParameter}.
+     */
+    private static class StreamingExtractor extends Extractor {
+        private final StreamingParameter<?> parameter;
+        
+        private StreamingExtractor(final StreamingParameter<?> parameter) {
+            this.parameter = parameter;
+        }
+        
+        @Override
+        Object extract(final RouteContext routeContext, final RequestValues values, final Map<String, Consumer> consumers) {
+            return Parameters.extractElements(routeContext, parameter, consumers);
+        }
+    }
+    
+    /**
+     * Extracts a {@link RequestParameter} by looking for it in the request parameters, headers and cookies,
+     * then falling back to its default value, and finally to the path variables.
+     */
+    private static class RequestExtractor extends Extractor {
+        private final RequestParameter<?> parameter;
+        private final String name;
+        private final Object defaultValue;
+        
+        private RequestExtractor(final RequestParameter<?> parameter) {
+            this.parameter = parameter;
+            this.name = parameter.getName();
+            this.defaultValue = parameter.getDefaultValue().orNull();
+        }
+        
+        @Override
+        Object extract(final RouteContext routeContext, final RequestValues values, final Map<String, Consumer> consumers) {
+            String value = requestParameter(values);
+            if (value == null) {
+                value = values.header(name);
+            }
+            if (value == null) {
+                value = values.cookie(name);
+            }
+            if (value != null) {
+                return Parameters.convert(value, parameter);
+            }
+            if (defaultValue != null) {
+                return defaultValue;
+            }
+            value = Parameters.pathVariable(routeContext, name);
+            if (value != null) {
+                return Parameters.convert(value, parameter);
+            }
+            throw LoggerMessages.MESSAGES.missingParameterInRequest(parameter, routeContext.getRoute());
+        }
+        
+        private String requestParameter(final RequestValues values) {
+            final String[] parameterValues = values.parameter(name);
+            if (parameterValues == null) {
+                return null;
+            }
+            if (parameterValues.length != 1) {
+                throw LoggerMessages.MESSAGES.multivaluedParamsUnsupported(name);
+            }
+            return parameterValues[0];
+        }
+    }
+
+    /**
+     * Extracts a {@link MultiValuedParameter} from all the values of the request parameter, or if there are none, 
+     * from all the headers or cookies with the name of the parameter, then falling back to its default value, and 
+     * finally to the path variables.
+     */
+    private static class MultiValuedExtractor extends Extractor {
+        private final MultiValuedParameter<?> parameter;
+        private final String name;
+        private final Object defaultValue;
+        
+        private MultiValuedExtractor(final MultiValuedParameter<?> parameter) {
+            this.parameter = parameter;
+            this.name = parameter.getName();
+            this.defaultValue = parameter.getDefaultValue().orNull();
+        }
+        
+        @Override
+        Object extract(final RouteContext routeContext, final RequestValues values, final Map<String, Consumer> consumers) {
+            String[] parameterValues = values.parameter(name);
+            if (parameterValues == null) {
+                parameterValues = values.headers(name);
+            }
+            if (parameterValues == null) {
+                parameterValues = values.cookies(name);
+            }
+            if (parameterValues == null && defaultValue != null) {
+                return defaultValue;
+            }
+            if (parameterValues == null) {
+                final String value = Parameters.pathVariable(routeContext, name);
+                if (value != null) {
+                    parameterValues = new String[] { value };
+                }
+            }
+            if (parameterValues != null) {
+                return Parameters.convert(parameterValues, parameter);
+            }
+            throw LoggerMessages.MESSAGES.missingParameterInRequest(parameter, routeContext.getRoute());
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MultiValuedParameter is a {@link RequestParameter} that binds all the values of a request parameter, for example 
+ * '?id=1&id=2&id=3', to a {@code List<T>}, an array {@code T[]}, or a primitive array like {@code long[]}.
+ * </p>
+ * The elements are converted with the {@link Converter} of the element type, which is looked up once when the 
+ * parameter is created. Values are converted directly into the resulting array or list, and primitive arrays are 
+ * filled without boxing the elements.
+ * 
+ * @param T the type of the target endpoint method parameter, either {@code List} or an array type.
+ */
+public class MultiValuedParameter<T> extends RequestParameter<T> {
+    
+    private final Class<?> elementType;
+    private final Converter<?> elementConverter;
+    private final boolean list;
+    
+    /**
+     * Creates a parameter that binds to an array type.
+     * 
+     * @param name the name of the parameter.
+     * @param arrayType the array type, for example {@code long[].class} or {@code String[].class}.
+     * @throws IllegalArgumentException if the passed-in type is not an array type, or there is no {@link Converter} 
+     * for its component type.
+     */
+    public MultiValuedParameter(final String name, final Class<T> arrayType) {
+        this(name, arrayType, null);
+    }
+    
+    /**
+     * Creates a parameter that binds to an array type, and that uses the passed-in default value if the request
+     * does not contain the parameter.
+     * 
+     * @param name the name of the parameter.
+     * @param arrayType the array type, for example {@code long[].class} or {@code String[].class}.
+     * @param defaultValue the default value, may be {@code null}.
+     * @throws IllegalArgumentException if the passed-in type is not an array type.
+     */
+    public MultiValuedParameter(final String name, final Class<T> arrayType, final T defaultValue) {
+        this(name, arrayType, defaultValue, componentType(arrayType), false);
+    }
+    
+    private MultiValuedParameter(final String name, final Class<T> type, final T defaultValue, final Class<?> elementType, 
+            final boolean list) {
+        super(name, Type.REQUEST, defaultValue, type, null);
+        this.elementType = elementType;
+        this.elementConverter = Converters.forParameter(name, elementType);
+        this.list = list;
+    }
+    
+    /**
+     * Creates a parameter that binds to a {@code List} with the passed-in element type.
+     * 
+     * @param name the name of the parameter.
+     * @param elementType the type of the elements of the list.
+     * @return {@link MultiValuedParameter} that binds to a {@code List<E>}.
+     * @throws IllegalArgumentException if there is no {@link Converter} for the element type.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <E> MultiValuedParameter<List<E>> listOf(final String name, final Class<E> elementType) {
+        return new MultiValuedParameter<List<E>>(name, (Class) List.class, null, elementType, true);
+    }
+    
+    private static Class<?> componentType(final Class<?> arrayType) {
+        if (!arrayType.isArray()) {
+            throw new IllegalArgumentException("Expected an array type but was '" + arrayType.getName() + "'");
+        }
+        return arrayType.getComponentType();
+    }
+    
+    /**
+     * Returns the type of the elements of this parameter.
+     * 
+     * @return {@code Class} the element type.
+     */
+    public Class<?> getElementType() {
+        return elementType;
+    }
+    
+    /**
+     * Converts the passed-in values into the type of this parameter.
+     * 
+     * @param values the String values of the parameter.
+     * @return {@code Object} the {@code List} or array holding the converted values.
+     * @throws IllegalArgumentException if a value cannot be converted.
+     */
+    public Object convert(final String[] values) {
+        if (list) {
+            final List<Object> converted = new ArrayList<Object>(values.length);
+            for (String value : values) {
+                converted.add(convertElement(value));
+            }
+            return converted;
+        }
+        if (elementType.isPrimitive()) {
+            return convertPrimitives(values);
+        }
+        final Object[] converted = (Object[]) Array.newInstance(elementType, values.length);
+        for (int i = 0; i < values.length; i++) {
+            converted[i] = convertElement(values[i]);
+        }
+        return converted;
+    }
+    
+    private Object convertElement(final String value) {
+        return elementConverter == null ? value : elementConverter.convert(value);
+    }
+    
+    private Object convertPrimitives(final String[] values) {
+        final int length = values.length;
+        if (elementType == long.class) {
+            final long[] converted = new long[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = Long.parseLong(values[i]);
+            }
+            return converted;
+        }
+        if (elementType == int.class) {
+            final int[] converted = new int[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = Integer.parseInt(values[i]);
+            }
+            return converted;
+        }
+        if (elementType == double.class) {
+            final double[] converted = new double[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = Double.parseDouble(values[i]);
+            }
+            return converted;
+        }
+        final Object converted = Array.newInstance(elementType, length);
+        for (int i = 0; i < length; i++) {
+            Array.set(converted, i, convertElement(values[i]));
+        }
+        return converted;
+    }
+    
+    @Override
+    public String toString() {
+        return new StringBuilder("MultiValuedParameter[name=")
+                .append(getName())
+                .append(", type=").append(getType())
+                .append(", elementType=").append(elementType)
+                .append(", defaultValue=").append(getDefaultValue())
+                .append("]").toString();
+    }
+
+}
@@ -17,17 +17,23 @@
 
 package org.jboss.aerogear.controller.router.parameter;
 
-import java.util.LinkedList;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import javax.servlet.http.Cookie;
-
-import org.jboss.aerogear.controller.log.AeroGearLogger;
 import org.jboss.aerogear.controller.log.LoggerMessages;
 import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.PathVariables;
+import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
+import org.jboss.aerogear.controller.util.RequestUtils;
 import org.jboss.aerogear.controller.util.StringUtils;
 
 import br.com.caelum.iogi.Iogi;
@@ -40,6 +46,7 @@ import com.google.common.base.Optional;
 public class Parameters {
     
     private static final Iogi IOGI = new Iogi(new NullDependencyProvider(), new DefaultLocaleProvider());
+    private static final ConcurrentMap<Class<?>, Target<?>> TARGETS = new ConcurrentHashMap<Class<?>, Target<?>>();
     
     private Parameters() {
     }
@@ -48,137 +55,251 @@ public class Parameters {
         return new Parameter<T>(Parameter.Type.ENTITY, type);
     }
     
+    /**
+     * Creates an entity parameter that iterates over the elements of the request body, for example a JSON array.
+     */
+    public static <E> Parameter<Iterator<E>> paramIterator(final Class<E> elementType) {
+        return new StreamingParameter<E>(elementType);
+    }
+    
+    /**
+     * Creates a request parameter of the passed-in type. Array types, like {@code long[]}, bind all the values 
+     * of the parameter.
+     * 
+     * @throws IllegalArgumentException if there is no {@link Converter} for the type, or the array's component type.
+     */
     public static <T> Parameter<T> param(final String name, final Class<T> type) {
+        if (type.isArray()) {
+            return new MultiValuedParameter<T>(name, type);
+        }
         return new RequestParameter<T>(name, Parameter.Type.REQUEST, type);
     }
     
+    /**
+     * Creates a request parameter that binds all the values of the parameter to a {@code List<E>}.
+     */
+    public static <E> Parameter<List<E>> paramList(final String name, final Class<E> elementType) {
+        return MultiValuedParameter.listOf(name, elementType);
+    }
+    
+    /**
+     * Creates a request parameter of the passed-in type with a default value that is used if the request does not
+     * contain the parameter. Array types, like {@code long[]}, bind all the values of the parameter.
+     * 
+     * @throws IllegalArgumentException if there is no {@link Converter} for the type, or the array's component type.
+     */
     public static <T> Parameter<T> param(final String name, final T defaultValue, final Class<T> type) {
+        if (type.isArray()) {
+            return new MultiValuedParameter<T>(name, type, defaultValue);
+        }
         return new RequestParameter<T>(name, Parameter.Type.REQUEST, defaultValue, type);
     }
     
     /**
      * Extracts the arguments from the current request for the target route.
+     * </p>
+     * The arguments are extracted using the route's precompiled {@link ExtractionPlan}. For routes that do 
+     * not provide one, a plan is compiled for the current request.
      * 
      * @param routeContext the {@link RouteContext}.
      * @return {@code Object[]} an array of Object matching the route targets parameters.
      */
     public static Object[] extractArguments(final RouteContext routeContext, final Map<String, Consumer> consumers) {
-        final List<Object> args = new LinkedList<Object>();
-        for (Parameter<?> parameter : routeContext.getRoute().getParameters()) {
-            switch (parameter.getParameterType()) {
-            case ENTITY:
-                if (!addIfPresent(extractIogiParam(routeContext), args)) {
-                    args.add(extractBody(routeContext, parameter, consumers));
-                }
-                break;
-            case REQUEST:
-                final RequestParameter<?> requestParameter = (RequestParameter<?>) parameter;
-                if (addIfPresent(extractParam(routeContext, requestParameter), args)) {
-                    break;
-                }
-                if (addIfPresent(extractHeaderParam(routeContext, requestParameter), args)) {
-                    break;
-                }
-                if (addIfPresent(extractCookieParam(routeContext, requestParameter), args)) {
-                    break;
-                }
-                if (addIfPresent(requestParameter.getDefaultValue(), args)) {
-                    break;
-                }
-                if (addIfPresent(extractPathParam(routeContext), args)) {
-                    break;
-                } 
-                throw LoggerMessages.MESSAGES.missingParameterInRequest(requestParameter, routeContext.getRoute());
-            }
+        final Route route = routeContext.getRoute();
+        ExtractionPlan plan = route.getExtractionPlan();
+        if (plan == null) {
+            plan = ExtractionPlan.compile(route.getParameters(), route.getTargetMethod());
         }
-        return args.toArray();
+        return plan.extractArguments(routeContext, consumers);
     }
     
-    private static Object extractBody(final RouteContext routeContext, final Parameter<?> parameter, final Map<String, Consumer> consumers) {
+    /**
+     * Extracts an entity of the passed-in type from the body of the request. The {@link Consumer} for the Content-Type
+     * of the request is used if there is one, otherwise the first {@link Consumer} matching one of the media types 
+     * the route consumes is used.
+     * 
+     * @param contentTypeConsumer the {@link Consumer} returned by 
+     * {@link #consumerForContentType(RouteContext, String, Map)}, may be {@code null}.
+     */
+    static Object extractBody(final RouteContext routeContext, final Consumer contentTypeConsumer, final Parameter<?> parameter, 
+            final Class<?> type, final Map<String, Consumer> consumers) {
+        return consumerFor(routeContext, contentTypeConsumer, parameter, consumers).unmarshall(routeContext.getRequest(), type);
+    }
+    
+    /**
+     * Extracts an {@link Iterator} over the elements of the body of the request. The {@link Consumer} is chosen in
+     * the same way as by {@link #extractBody(RouteContext, Consumer, Parameter, Class, Map)}. If it is a 
+     * {@link StreamingConsumer} the elements are unmarshalled lazily, otherwise the body is unmarshalled into an 
+     * array of the element type.
+     */
+    static Iterator<?> extractElements(final RouteContext routeContext, final StreamingParameter<?> parameter, 
+            final Map<String, Consumer> consumers) {
+        final Consumer contentTypeConsumer = consumerForContentType(routeContext, 
+                RequestUtils.extractContentType(routeContext.getRequest()), consumers);
+        final Consumer consumer = consumerFor(routeContext, contentTypeConsumer, parameter, consumers);
+        if (consumer instanceof StreamingConsumer) {
+            return ((StreamingConsumer) consumer).unmarshallElements(routeContext.getRequest(), parameter.getElementType());
+        }
+        final Class<?> arrayType = Array.newInstance(parameter.getElementType(), 0).getClass();
+        final Object[] elements = (Object[]) consumer.unmarshall(routeContext.getRequest(), arrayType);
+        return Arrays.asList(elements).iterator();
+    }
+    
+    private static Consumer consumerFor(final RouteContext routeContext, final Consumer contentTypeConsumer, 
+            final Parameter<?> parameter, final Map<String, Consumer> consumers) {
+        if (contentTypeConsumer != null) {
+            return contentTypeConsumer;
+        }
         final Set<String> mediaTypes = routeContext.getRoute().consumes();
         for (String mediaType : mediaTypes) {
             final Consumer consumer = consumers.get(mediaType);
             if (consumer != null) {
-                return consumer.unmarshall(routeContext.getRequest(), parameter.getType());
+                return consumer;
             }
         }
         throw LoggerMessages.MESSAGES.noConsumerForMediaType(parameter, consumers.values(), mediaTypes);
     }
-            
+    
+    /**
+     * Returns the {@link Consumer} for the Content-Type of the request.
+     * 
+     * @param contentType the media type of the request's Content-Type, see {@link RequestUtils#extractContentType}.
+     * @return {@link Consumer} for the Content-Type, or {@code null} if the request has no Content-Type, the route 
+     * does not consume it, or there is no {@link Consumer} for it.
+     */
+    static Consumer consumerForContentType(final RouteContext routeContext, final String contentType, 
+            final Map<String, Consumer> consumers) {
+        if (contentType == null) {
+            return null;
+        }
+        return routeContext.getRoute().consumes().contains(contentType) ? consumers.get(contentType) : null;
+    }
 
     /**
      * Extracts a path parameter from the passed in request path.
      * 
      * @param routeContext  the {@link RouteContext} to extract a path parameter from.
-     * @return {@code Optional<String>}  containing the extracted path param if present in the request path.
+     * @return {@code Optional<String>}  containing the value of the first variable in the route's path, if any.
+     * @deprecated the value is not looked up by name, use {@link #extractPathParam(RouteContext, RequestParameter)}.
      */
+    @Deprecated
     public static Optional<String> extractPathParam(final RouteContext routeContext) {
-        final String requestPath = routeContext.getRequestPath();
-        final int paramOffset = routeContext.getRoute().getPath().indexOf('{');
-        if (paramOffset != -1 && paramOffset < requestPath.length()) {
-            return Optional.of(requestPath.subSequence(paramOffset, requestPath.length()).toString());
-        }
-        return Optional.absent();
+        final PathVariables pathVariables = routeContext.getPathVariables();
+        return pathVariables.size() == 0 ? Optional.<String>absent() : Optional.of(pathVariables.get(0));
+    }
+
+    /**
+     * Extracts a path parameter from the passed in request path.
+     * 
+     * @param routeContext  the {@link RouteContext} to extract a path parameter from.
+     * @param parameter the {@link RequestParameter} whose name matches a variable in the route's path.
+     * @return {@code Optional<String>}  containing the extracted path param if present in the request path.
+     * @see #pathVariable(RouteContext, String)
+     */
+    public static Optional<String> extractPathParam(final RouteContext routeContext, final RequestParameter<?> parameter) {
+        return Optional.fromNullable(pathVariable(routeContext, parameter.getName()));
+    }
+
+    /**
+     * Returns the value of the named variable in the route's path.
+     * </p>
+     * Before path templates supported several variables, a parameter was bound to the only variable in the path 
+     * whatever its name, for example param("id") to '/cars/{carId}'. To keep such routes working, the value of the 
+     * only variable is returned if the path has exactly one variable and it has a different name.
+     * 
+     * @param routeContext  the {@link RouteContext} to extract the path variable from.
+     * @param name the name of the variable.
+     * @return {@code String} the value of the variable, or {@code null} if the route's path has no such variable.
+     */
+    static String pathVariable(final RouteContext routeContext, final String name) {
+        final PathVariables pathVariables = routeContext.getPathVariables();
+        final String value = pathVariables.get(name);
+        return value == null && pathVariables.size() == 1 ? pathVariables.get(0) : value;
     }
 
     /**
-     * Returns an instance of the type used in the parameter names using Iogi.
+     * Returns an instance of the type of the parameter at the passed-in position of the route's target method 
+     * using Iogi.
      * </p>
      * For example, having form parameters named 'car.color', 'car.brand', this method
      * would try to use those values to instantiate a new Car instance.
      * 
+     * @param routeContext the {@link RouteContext}.
+     * @param index the position of the parameter in the target method's parameter list.
      * @return {@link Optional}  may contain the instantiated instance, else isPresent will return false.
      */
-    public static Optional<?> extractIogiParam(final RouteContext routeContext) {
-        final LinkedList<br.com.caelum.iogi.parameters.Parameter> parameters = new LinkedList<br.com.caelum.iogi.parameters.Parameter>();
-        for (Map.Entry<String, String[]> entry : routeContext.getRequest().getParameterMap().entrySet()) {
-            final String[] value = entry.getValue();
-            if (value.length == 1) {
-                parameters.add(new br.com.caelum.iogi.parameters.Parameter(entry.getKey(), value[0]));
-            } else {
-                AeroGearLogger.LOGGER.multivaluedParamsUnsupported();
+    public static Optional<?> extractIogiParam(final RouteContext routeContext, final int index) {
+        final Class<?> parameterType = routeContext.getRoute().getTargetMethod().getParameterTypes()[index];
+        return Optional.fromNullable(instantiate(targetFor(parameterType), routeContext.getRequest().getParameterMap()));
+    }
+    
+    /**
+     * Returns the Iogi {@link Target} for the passed-in entity type, which is named after the type, for example 'car' 
+     * for Car. Targets are created once per type.
+     */
+    static Target<?> targetFor(final Class<?> type) {
+        Target<?> target = TARGETS.get(type);
+        if (target == null) {
+            target = Target.create(type, StringUtils.downCaseFirst(type.getSimpleName()));
+            final Target<?> existing = TARGETS.putIfAbsent(type, target);
+            if (existing != null) {
+                target = existing;
             }
         }
-        final Class<?>[] parameterTypes = routeContext.getRoute().getTargetMethod().getParameterTypes();
-        final Class<?> parameterType = parameterTypes[0];
-        final Target<?> target = Target.create(parameterType, StringUtils.downCaseFirst(parameterType.getSimpleName()));
-        return Optional.fromNullable(IOGI.instantiate(target, parameters.toArray(new br.com.caelum.iogi.parameters.Parameter[parameters.size()])));
+        return target;
     }
     
-    private static boolean addIfPresent(final Optional<?> op, final List<Object> args) {
-        if (op.isPresent()) {
-            args.add(op.get());
-            return true;
+    /**
+     * Instantiates the passed-in target from the request parameters that are named after it, for example 'car.color'. 
+     * Parameters that are not related to the target are not handed to Iogi, and Iogi is not invoked at all if there are 
+     * no related parameters.
+     */
+    static Object instantiate(final Target<?> target, final Map<String, String[]> requestParameters) {
+        final String name = target.getName();
+        final List<br.com.caelum.iogi.parameters.Parameter> parameters = new ArrayList<br.com.caelum.iogi.parameters.Parameter>();
+        for (Map.Entry<String, String[]> entry : requestParameters.entrySet()) {
+            if (!isRelated(entry.getKey(), name)) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                parameters.add(new br.com.caelum.iogi.parameters.Parameter(entry.getKey(), value));
+            }
+        }
+        if (parameters.isEmpty()) {
+            return null;
         }
-        return false;
+        return IOGI.instantiate(target, parameters.toArray(new br.com.caelum.iogi.parameters.Parameter[parameters.size()]));
     }
     
-    private static Optional<?> extractHeaderParam(final RouteContext routeContext, final RequestParameter<?> parameter) {
-        return Optional.fromNullable(routeContext.getRequest().getHeader(parameter.getName()));
+    private static boolean isRelated(final String parameterName, final String targetName) {
+        if (!parameterName.startsWith(targetName)) {
+            return false;
+        }
+        if (parameterName.length() == targetName.length()) {
+            return true;
+        }
+        final char separator = parameterName.charAt(targetName.length());
+        return separator == '.' || separator == '[';
     }
     
-    private static Optional<?> extractCookieParam(final RouteContext routeContext, final RequestParameter<?> parameter) {
-        final Cookie[] cookies = routeContext.getRequest().getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if (cookie.getName().equals(parameter.getName())) {
-                    return Optional.fromNullable(cookie.getValue());
-                }
-            }
+    static Object convert(final String value, final RequestParameter<?> parameter) {
+        final Converter<?> converter = parameter.getConverter();
+        if (converter == null) {
+            return value;
+        }
+        try {
+            return converter.convert(value);
+        } catch (final IllegalArgumentException e) {
+            throw LoggerMessages.MESSAGES.parameterConversionFailed(e, value, parameter);
         }
-        return Optional.absent();
     }
     
-    private static Optional<?> extractParam(final RouteContext routeContext, final RequestParameter<?> parameter) {
-        final String[] values = routeContext.getRequest().getParameterMap().get(parameter.getName());
-        if (values != null) {
-            if (values.length == 1) {
-                return Optional.of(values[0]);
-            } else {
-                throw LoggerMessages.MESSAGES.multivaluedParamsUnsupported(parameter.getName());
-            }
+    static Object convert(final String[] values, final MultiValuedParameter<?> parameter) {
+        try {
+            return parameter.convert(values);
+        } catch (final IllegalArgumentException e) {
+            throw LoggerMessages.MESSAGES.parameterConversionFailed(e, Arrays.toString(values), parameter);
         }
-        return Optional.absent();
     }
 
 }
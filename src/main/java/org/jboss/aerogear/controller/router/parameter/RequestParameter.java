@@ -24,15 +24,28 @@ public class RequestParameter<T> extends Parameter<T> {
 
     private final String name;
     private final Optional<T> defaultValue;
+    private final Converter<T> converter;
     
     public RequestParameter(final String name, final Type parameterType, final Class<T> type) {
         this(name, parameterType, null, type);
     }
     
+    /**
+     * Creates a RequestParameter whose String value is converted with the {@link Converter} for its type.
+     * 
+     * @throws IllegalArgumentException if there is no {@link Converter} for the type, see 
+     * {@link Converters#forParameter(String, Class)}.
+     */
     public RequestParameter(final String name, final Type parameterType, final T defaultValue, final Class<T> type) {
+        this(name, parameterType, defaultValue, type, Converters.forParameter(name, type));
+    }
+    
+    protected RequestParameter(final String name, final Type parameterType, final T defaultValue, final Class<T> type, 
+            final Converter<T> converter) {
         super(parameterType, type);
         this.name = name;
         this.defaultValue = Optional.fromNullable(defaultValue);
+        this.converter = converter;
     }
     
     public String getName() {
@@ -43,6 +56,16 @@ public class RequestParameter<T> extends Parameter<T> {
         return defaultValue;
     }
     
+    /**
+     * Returns the {@link Converter} used to convert the String value of this parameter into its type.
+     * 
+     * @return {@link Converter} for the type of this parameter, or {@code null} if the type is a supertype of
+     * {@code String}, in which case the String value is used as is.
+     */
+    public Converter<T> getConverter() {
+        return converter;
+    }
+    
     @Override
     public String toString() {
         return new StringBuilder("RequestParameter[name=")
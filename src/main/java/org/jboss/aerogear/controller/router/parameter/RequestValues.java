@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * RequestValues gives the extractors of an {@link ExtractionPlan} access to the request parameters, headers and
+ * cookies of the current request.
+ * </p>
+ * An instance is created for each extraction and is never shared between requests. The parameter map is retrieved 
+ * from the request only once, and the cookies are indexed by name the first time a cookie is looked up, so that 
+ * each lookup is a single hash probe regardless of the number of parameters of the route.
+ */
+final class RequestValues {
+    
+    private final HttpServletRequest request;
+    private Map<String, String[]> parameters;
+    private Map<String, String[]> cookies;
+    
+    RequestValues(final HttpServletRequest request) {
+        this.request = request;
+    }
+    
+    /**
+     * Returns the request parameters, retrieving them from the request the first time they are requested.
+     */
+    Map<String, String[]> parameters() {
+        if (parameters == null) {
+            parameters = request.getParameterMap();
+        }
+        return parameters;
+    }
+    
+    String[] parameter(final String name) {
+        return parameters().get(name);
+    }
+    
+    String header(final String name) {
+        return request.getHeader(name);
+    }
+    
+    String[] headers(final String name) {
+        final Enumeration<String> headers = request.getHeaders(name);
+        if (headers == null || !headers.hasMoreElements()) {
+            return null;
+        }
+        final List<String> values = new ArrayList<String>();
+        while (headers.hasMoreElements()) {
+            values.add(headers.nextElement());
+        }
+        return values.toArray(new String[values.size()]);
+    }
+    
+    /**
+     * Returns the value of the first cookie with the passed-in name.
+     */
+    String cookie(final String name) {
+        final String[] values = cookies(name);
+        return values == null ? null : values[0];
+    }
+    
+    /**
+     * Returns the values of all the cookies with the passed-in name, in the order they were sent.
+     */
+    String[] cookies(final String name) {
+        if (cookies == null) {
+            cookies = indexCookies(request.getCookies());
+        }
+        return cookies.get(name);
+    }
+    
+    private static Map<String, String[]> indexCookies(final Cookie[] cookies) {
+        if (cookies == null || cookies.length == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String[]> index = new HashMap<String, String[]>(cookies.length * 2);
+        for (Cookie cookie : cookies) {
+            final String[] values = index.get(cookie.getName());
+            if (values == null) {
+                index.put(cookie.getName(), new String[] { cookie.getValue() });
+            } else {
+                final String[] more = Arrays.copyOf(values, values.length + 1);
+                more[values.length] = cookie.getValue();
+                index.put(cookie.getName(), more);
+            }
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.util.Iterator;
+
+import org.jboss.aerogear.controller.router.StreamingConsumer;
+
+/**
+ * StreamingParameter is an entity {@link Parameter} that gives the target endpoint method an {@code Iterator<E>} 
+ * over the elements of the request body, for example the elements of a JSON array.
+ * </p>
+ * If the {@link org.jboss.aerogear.controller.router.Consumer} for the request is a {@link StreamingConsumer} the 
+ * elements are unmarshalled lazily as the Iterator is advanced. Otherwise the body is unmarshalled into an array
+ * of the element type up front.
+ * 
+ * @param E the type of the elements.
+ */
+public class StreamingParameter<E> extends Parameter<Iterator<E>> {
+    
+    private final Class<E> elementType;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public StreamingParameter(final Class<E> elementType) {
+        super(Type.ENTITY, (Class) Iterator.class);
+        this.elementType = elementType;
+    }
+    
+    public Class<E> getElementType() {
+        return elementType;
+    }
+    
+    @Override
+    public String toString() {
+        return "StreamingParameter[type=" + getParameterType() + ", elementType=" + elementType + "]";
+    }
+
+}
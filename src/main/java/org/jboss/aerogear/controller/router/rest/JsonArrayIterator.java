@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectReader;
+import org.jboss.aerogear.controller.router.AeroGearException;
+
+/**
+ * JsonArrayIterator reads the elements of a JSON array one at a time from a {@link JsonParser}. 
+ * </p>
+ * Each element is bound when it is requested, so only the element being bound is held in memory. A body that is 
+ * not an array is read as a single element. The parser is closed once the end of the array has been reached, or 
+ * when {@link #close()} is called.
+ */
+final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+    
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private boolean array;
+    private boolean started;
+    private boolean finished;
+    private boolean hasNext;
+    
+    JsonArrayIterator(final JsonParser parser, final ObjectReader reader) {
+        this.parser = parser;
+        this.reader = reader;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (finished || hasNext) {
+            return hasNext;
+        }
+        try {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+            } else if (!array) {
+                token = null;
+            }
+            hasNext = token != null && token != JsonToken.END_ARRAY;
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        } catch (final IOException e) {
+            throw new AeroGearException(e);
+        }
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasNext = false;
+        try {
+            return reader.<T>readValue(parser);
+        } catch (final IOException e) {
+            throw new AeroGearException(e);
+        }
+    }
+    
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        hasNext = false;
+        parser.close();
+    }
+
+}
@@ -18,31 +18,80 @@
 package org.jboss.aerogear.controller.router.rest;
 
 import java.io.IOException;
+import java.util.Iterator;
 
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 
+import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.jboss.aerogear.controller.router.AeroGearException;
-import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
 
 /**
  * Concreate Consumer that is able to unmarshall a Http request body into a Java representation.
  * </p>
- * JSON support is provided by Jackson.
+ * JSON support is provided by Jackson. A request body holding a JSON array can also be unmarshalled lazily, 
+ * element by element, using {@link #unmarshallElements(HttpServletRequest, Class)}.
  */
-public class JsonConsumer implements Consumer {
+public class JsonConsumer implements StreamingConsumer {
+    
+    private final String mediaType;
+    private final JsonMapper jsonMapper;
+    
+    /**
+     * Creates a JsonConsumer that uses the default {@link JsonMapper}.
+     */
+    public JsonConsumer() {
+        this(JsonMapper.defaultMapper());
+    }
+    
+    /**
+     * Creates a JsonConsumer that uses the {@link ObjectMapper} provided by the application, if any.
+     * 
+     * @param objectMapperInstance the CDI {@link Instance} of the ObjectMapper.
+     */
+    @Inject
+    public JsonConsumer(final Instance<ObjectMapper> objectMapperInstance) {
+        this(JsonMapper.of(objectMapperInstance));
+    }
+    
+    public JsonConsumer(final JsonMapper jsonMapper) {
+        this(MediaType.JSON.toString(), jsonMapper);
+    }
+    
+    /**
+     * Constructor for subclasses that consume another format supported by Jackson, like Smile.
+     * 
+     * @param mediaType the media type that this consumer consumes.
+     * @param jsonMapper the {@link JsonMapper} for the format.
+     */
+    protected JsonConsumer(final String mediaType, final JsonMapper jsonMapper) {
+        this.mediaType = mediaType;
+        this.jsonMapper = jsonMapper;
+    }
     
     @Override
     public String mediaType() {
-        return MediaType.JSON.toString();
+        return mediaType;
     }
 
     @Override
     public <T> T unmarshall(final HttpServletRequest request, final Class<T> type) {
         try {
-            final ObjectMapper om = new ObjectMapper();
-            return om.readValue(request.getInputStream(), type);
+            return jsonMapper.readerFor(type).<T>readValue(request.getInputStream());
+        } catch (final IOException e) {
+            throw new AeroGearException(e);
+        }
+    }
+
+    @Override
+    public <T> Iterator<T> unmarshallElements(final HttpServletRequest request, final Class<T> elementType) {
+        try {
+            final JsonParser parser = jsonMapper.getObjectMapper().getJsonFactory().createJsonParser(request.getInputStream());
+            return new JsonArrayIterator<T>(parser, jsonMapper.readerFor(elementType));
         } catch (final IOException e) {
             throw new AeroGearException(e);
         }
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.inject.Instance;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.smile.SmileFactory;
+
+/**
+ * JsonMapper holds the Jackson {@link ObjectMapper} used by {@link JsonConsumer} and {@link JsonResponder}, together
+ * with an {@link ObjectReader} and {@link ObjectWriter} per type.
+ * </p>
+ * The ObjectMapper is shared by all requests so that the serializers and deserializers that Jackson resolves for a 
+ * type are cached and reused, instead of being introspected again for every request. ObjectReaders and ObjectWriters
+ * are immutable and thread-safe, and are created once per type.
+ * </p>
+ * An application can configure the ObjectMapper by producing an instance using CDI, for example:
+ * <pre>
+ * &#64;Produces
+ * public ObjectMapper objectMapper() {
+ *     final ObjectMapper objectMapper = new ObjectMapper();
+ *     objectMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+ *     return objectMapper;
+ * }
+ * </pre>
+ * The ObjectMapper must not be reconfigured once it is in use.
+ * </p>
+ * {@link #smileMapper()} returns a JsonMapper for Jackson's binary Smile format that shares the configuration of this
+ * JsonMapper. jackson-smile is an optional dependency, so Smile support requires it to be on the classpath of the 
+ * application.
+ */
+public final class JsonMapper {
+    
+    private static final JsonMapper DEFAULT = new JsonMapper(new ObjectMapper());
+    
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> streamWriters = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+    private volatile ObjectMapper streamMapper;
+    private volatile JsonMapper smileMapper;
+    private volatile boolean smileResolved;
+    
+    /**
+     * Creates a JsonMapper for the passed-in {@link ObjectMapper}.
+     * 
+     * @param objectMapper the ObjectMapper to use.
+     */
+    public JsonMapper(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Returns the JsonMapper shared by all consumers and responders that have not been given an {@link ObjectMapper}.
+     * 
+     * @return {@link JsonMapper} using an ObjectMapper with the default configuration.
+     */
+    public static JsonMapper defaultMapper() {
+        return DEFAULT;
+    }
+    
+    /**
+     * Returns a JsonMapper for the {@link ObjectMapper} provided by the application, or the default JsonMapper if 
+     * the application does not provide one.
+     * 
+     * @param objectMapperInstance the CDI {@link Instance} of the ObjectMapper.
+     * @return {@link JsonMapper} for the ObjectMapper.
+     */
+    public static JsonMapper of(final Instance<ObjectMapper> objectMapperInstance) {
+        return objectMapperInstance.isUnsatisfied() ? DEFAULT : new JsonMapper(objectMapperInstance.get());
+    }
+    
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+    
+    /**
+     * Returns a JsonMapper that reads and writes Jackson's binary Smile format. Its ObjectMapper shares the 
+     * serialization and deserialization configuration, and the serializer and deserializer providers, of the 
+     * ObjectMapper of this JsonMapper.
+     * 
+     * @return {@link JsonMapper} for Smile, or {@code null} if jackson-smile is not on the classpath.
+     */
+    public JsonMapper smileMapper() {
+        if (!smileResolved) {
+            smileMapper = createSmileMapper();
+            smileResolved = true;
+        }
+        return smileMapper;
+    }
+    
+    private JsonMapper createSmileMapper() {
+        try {
+            return createMapper(Smile.factory());
+        } catch (final NoClassDefFoundError e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns a JsonMapper for the passed-in {@link JsonFactory} whose ObjectMapper shares the configuration and the
+     * serializer and deserializer providers of the ObjectMapper of this JsonMapper.
+     */
+    JsonMapper createMapper(final JsonFactory jsonFactory) {
+        return new JsonMapper(new ObjectMapper(jsonFactory, objectMapper.getSerializerProvider(), objectMapper.getDeserializerProvider(), 
+                objectMapper.copySerializationConfig(), objectMapper.copyDeserializationConfig()));
+    }
+    
+    /**
+     * Returns the {@link ObjectReader} for the passed-in type.
+     * 
+     * @param type the type to read.
+     * @return {@link ObjectReader} that reads instances of the type.
+     */
+    public ObjectReader readerFor(final Class<?> type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = objectMapper.reader(type);
+            readers.putIfAbsent(type, reader);
+        }
+        return reader;
+    }
+    
+    /**
+     * Returns the {@link ObjectWriter} for the passed-in type.
+     * 
+     * @param type the type to write.
+     * @return {@link ObjectWriter} that writes instances of the type.
+     */
+    public ObjectWriter writerFor(final Class<?> type) {
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = objectMapper.writerWithType(type);
+            writers.putIfAbsent(type, writer);
+        }
+        return writer;
+    }
+    
+    /**
+     * Returns an {@link ObjectWriter} for the passed-in type that does not flush the generator after writing a value,
+     * whatever the configuration of the ObjectMapper. It is used to write the elements of a stream into a single 
+     * generator, which is then flushed by the caller at the intervals it chooses.
+     * 
+     * @param type the type to write.
+     * @return {@link ObjectWriter} that writes instances of the type without flushing.
+     */
+    public ObjectWriter streamWriterFor(final Class<?> type) {
+        ObjectWriter writer = streamWriters.get(type);
+        if (writer == null) {
+            writer = streamMapper().writerWithType(type);
+            streamWriters.putIfAbsent(type, writer);
+        }
+        return writer;
+    }
+    
+    private ObjectMapper streamMapper() {
+        if (streamMapper == null) {
+            streamMapper = new ObjectMapper(objectMapper.getJsonFactory(), objectMapper.getSerializerProvider(), 
+                    objectMapper.getDeserializerProvider(), 
+                    objectMapper.copySerializationConfig().without(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE), 
+                    objectMapper.copyDeserializationConfig());
+        }
+        return streamMapper;
+    }
+    
+    /**
+     * Refers to jackson-smile, which is an optional dependency, from a separate class so that JsonMapper can be loaded 
+     * without it.
+     */
+    private static final class Smile {
+        private static JsonFactory factory() {
+            return new SmileFactory();
+        }
+    }
+
+}
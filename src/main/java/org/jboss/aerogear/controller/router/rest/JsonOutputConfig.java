@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+/**
+ * Concrete implementation of {@link JsonOutputConfiguration}.
+ */
+public class JsonOutputConfig implements JsonOutputConfiguration {
+    
+    private static final JsonOutputConfiguration DISABLED = new JsonOutputConfig(false, 0);
+    
+    private final boolean byteOutputEnabled;
+    private final int bufferSize;
+    
+    private JsonOutputConfig(final boolean byteOutputEnabled, final int bufferSize) {
+        this.byteOutputEnabled = byteOutputEnabled;
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * Returns a {@link JsonOutputConfiguration} that enables writing UTF-8 bytes to the response's OutputStream.
+     * 
+     * @param bufferSize the size of the buffer in bytes. Responses up to this size are sent with a Content-Length.
+     * @return {@link JsonOutputConfiguration} with byte output enabled.
+     * @throws IllegalArgumentException if bufferSize is not greater than zero.
+     */
+    public static JsonOutputConfiguration enableByteOutput(final int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be greater than zero, was: " + bufferSize);
+        }
+        return new JsonOutputConfig(true, bufferSize);
+    }
+    
+    public static JsonOutputConfiguration disableByteOutput() {
+        return DISABLED;
+    }
+    
+    /**
+     * Returns a {@link JsonOutputConfiguration} instance with the default values, which has byte output disabled.
+     * 
+     * @return {@link JsonOutputConfiguration} with default properties set.
+     */
+    public static JsonOutputConfiguration defaultConfig() {
+        return disableByteOutput();
+    }
+    
+    @Override
+    public boolean isByteOutputEnabled() {
+        return byteOutputEnabled;
+    }
+    
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    @Override
+    public String toString() {
+        return "JsonOutputConfiguration[byteOutputEnabled=" + byteOutputEnabled + ", bufferSize=" + bufferSize + "]";
+    }
+
+}
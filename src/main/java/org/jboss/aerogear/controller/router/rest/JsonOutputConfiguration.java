@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+/**
+ * Configuration for how {@link JsonResponder} writes responses.
+ * </p>
+ * By default JSON is written as characters to the response's Writer. To have JSON encoded as UTF-8 bytes directly
+ * to the response's OutputStream an application can produce an instance of this type using CDI, for example:
+ * <pre>
+ * &#64;Produces
+ * public JsonOutputConfiguration jsonOutputConfig() {
+ *     return JsonOutputConfig.enableByteOutput(64 * 1024);
+ * }
+ * </pre>
+ * 
+ * @see JsonOutputConfig
+ */
+public interface JsonOutputConfiguration {
+    
+    /**
+     * Determines if JSON is written as UTF-8 bytes to the response's OutputStream.
+     * 
+     * @return {@code true} if byte output is enabled, {@code false} if JSON is written to the response's Writer.
+     */
+    boolean isByteOutputEnabled();
+    
+    /**
+     * Returns the size of the buffer that responses are written to. A response that fits in the buffer is sent
+     * with a Content-Length header, larger responses are streamed.
+     * 
+     * @return {@code int} the buffer size in bytes.
+     */
+    int getBufferSize();
+
+}
@@ -17,7 +17,21 @@
 
 package org.jboss.aerogear.controller.router.rest;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.Responder;
 import org.jboss.aerogear.controller.router.RouteContext;
@@ -25,23 +39,140 @@ import org.jboss.aerogear.controller.router.RouteContext;
 /**
  * A RESTFul {@link Responder} that is able to return JSON responses.
  * </p>
- * This implementation uses Jackson for JSON support.
+ * This implementation uses Jackson for JSON support. By default JSON is written to the response's Writer. When byte 
+ * output is enabled using a {@link JsonOutputConfiguration}, JSON is encoded as UTF-8 directly into a reusable buffer 
+ * and written to the response's OutputStream, with a Content-Length if the response fits in the buffer.
+ * </p>
+ * A route that returns an {@link Iterator}, or an {@link Iterable} that is neither a {@link Collection} nor a Jackson 
+ * {@link JsonNode}, for example a database cursor, has its result streamed as a JSON array. The elements are serialized one at a time as they are
+ * iterated into Jackson's buffer, and the buffer and the response are flushed every {@value #FLUSH_INTERVAL} elements,
+ * so the result is never held in memory as a whole and the client starts receiving data right away. If the result 
+ * implements {@link Closeable} it is closed once it has been written.
  */
 public class JsonResponder extends AbstractRestResponder {
 
+    /**
+     * The number of elements of a streamed result after which the response is flushed.
+     */
+    public static final int FLUSH_INTERVAL = 1000;
+
+    private final String mediaType;
+    private final JsonMapper jsonMapper;
+    private final JsonOutputConfiguration outputConfig;
+
+    /**
+     * Creates a JsonResponder that uses the default {@link JsonMapper}.
+     */
     public JsonResponder() {
-        super(MediaType.JSON.toString());
+        this(JsonMapper.defaultMapper(), JsonOutputConfig.defaultConfig());
+    }
+    
+    /**
+     * Creates a JsonResponder that uses the {@link ObjectMapper} and {@link JsonOutputConfiguration} provided by
+     * the application, if any.
+     * 
+     * @param objectMapperInstance the CDI {@link Instance} of the ObjectMapper.
+     * @param outputConfigInstance the CDI {@link Instance} of the JsonOutputConfiguration.
+     */
+    @Inject
+    public JsonResponder(final Instance<ObjectMapper> objectMapperInstance, final Instance<JsonOutputConfiguration> outputConfigInstance) {
+        this(JsonMapper.of(objectMapperInstance), 
+                outputConfigInstance.isUnsatisfied() ? JsonOutputConfig.defaultConfig() : outputConfigInstance.get());
+    }
+    
+    public JsonResponder(final JsonMapper jsonMapper, final JsonOutputConfiguration outputConfig) {
+        this(MediaType.JSON.toString(), jsonMapper, outputConfig);
+    }
+    
+    /**
+     * Constructor for subclasses that respond with another format supported by Jackson, like Smile.
+     * 
+     * @param mediaType the media type that this responder accepts.
+     * @param jsonMapper the {@link JsonMapper} for the format.
+     * @param outputConfig the {@link JsonOutputConfiguration}, which must enable byte output for binary formats.
+     */
+    protected JsonResponder(final String mediaType, final JsonMapper jsonMapper, final JsonOutputConfiguration outputConfig) {
+        super(mediaType);
+        this.mediaType = mediaType;
+        this.jsonMapper = jsonMapper;
+        this.outputConfig = outputConfig;
     }
 
     @Override
     public void writeResponse(final Object entity, final RouteContext routeContext) throws Exception {
-        final ObjectMapper om = new ObjectMapper();
-        om.writeValue(routeContext.getResponse().getWriter(), entity);
+        if (isStream(entity)) {
+            writeStream(entity, routeContext.getResponse());
+            return;
+        }
+        final ObjectWriter writer = jsonMapper.writerFor(entity == null ? Object.class : entity.getClass());
+        if (outputConfig.isByteOutputEnabled()) {
+            writeBytes(writer, entity, routeContext.getResponse());
+        } else {
+            writer.writeValue(routeContext.getResponse().getWriter(), entity);
+        }
+    }
+    
+    private static boolean isStream(final Object entity) {
+        if (entity instanceof Iterator) {
+            return true;
+        }
+        return entity instanceof Iterable && !(entity instanceof Collection) && !(entity instanceof JsonNode);
+    }
+    
+    private void writeBytes(final ObjectWriter writer, final Object entity, final HttpServletResponse response) throws IOException {
+        final ResponseBuffer buffer = ResponseBuffer.acquire(response, outputConfig.getBufferSize());
+        try {
+            final JsonGenerator generator = jsonMapper.getObjectMapper().getJsonFactory().createJsonGenerator(buffer, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writer.writeValue(generator, entity);
+            generator.close();
+            buffer.finish();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private void writeStream(final Object result, final HttpServletResponse response) throws IOException {
+        try {
+            final Iterator<?> elements = result instanceof Iterator ? (Iterator<?>) result : ((Iterable<?>) result).iterator();
+            final JsonGenerator generator = createStreamGenerator(response);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.writeStartArray();
+            int count = 0;
+            while (elements.hasNext()) {
+                final Object element = elements.next();
+                if (element == null) {
+                    generator.writeNull();
+                } else {
+                    jsonMapper.streamWriterFor(element.getClass()).writeValue(generator, element);
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                    response.flushBuffer();
+                }
+            }
+            generator.writeEndArray();
+            generator.close();
+            response.flushBuffer();
+        } finally {
+            if (result instanceof Closeable) {
+                ((Closeable) result).close();
+            }
+        }
+    }
+    
+    private JsonGenerator createStreamGenerator(final HttpServletResponse response) throws IOException {
+        final JsonFactory jsonFactory = jsonMapper.getObjectMapper().getJsonFactory();
+        if (outputConfig.isByteOutputEnabled()) {
+            return jsonFactory.createJsonGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        }
+        return jsonFactory.createJsonGenerator(response.getWriter());
     }
 
     @Override
     public String mediaType() {
-        return MediaType.JSON.toString();
+        return mediaType;
     }
 
 }
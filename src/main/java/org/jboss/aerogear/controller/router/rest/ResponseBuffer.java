@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * ResponseBuffer is an OutputStream that buffers a response body in a byte array that is reused by the requests
+ * processed on the same thread.
+ * </p>
+ * If the whole body fits in the buffer, {@link #finish()} sets the Content-Length of the response and writes the
+ * body with a single write. Once the body outgrows the buffer, the buffered bytes and everything written after them
+ * go straight to the response's OutputStream, and the container streams the response.
+ * </p>
+ * Nothing is written to the response until the buffer overflows or {@link #finish()} is called, so a body that 
+ * fails halfway can be discarded with {@link #release()} before the response is committed.
+ */
+final class ResponseBuffer extends OutputStream {
+    
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<byte[]>();
+    
+    private final HttpServletResponse response;
+    private final int limit;
+    private byte[] buffer;
+    private int count;
+    private OutputStream out;
+    
+    private ResponseBuffer(final HttpServletResponse response, final byte[] buffer, final int limit) {
+        this.response = response;
+        this.buffer = buffer;
+        this.limit = limit;
+    }
+    
+    /**
+     * Returns a ResponseBuffer for the passed-in response, reusing the buffer of the current thread if it is at 
+     * least as large as the requested size. Responders configured with different sizes therefore share the largest
+     * buffer, and the body is still only buffered up to the requested size.
+     * 
+     * @param response the {@link HttpServletResponse} to write to.
+     * @param size the size of the buffer in bytes.
+     * @return {@link ResponseBuffer} which must be finished or released.
+     */
+    static ResponseBuffer acquire(final HttpServletResponse response, final int size) {
+        byte[] buffer = BUFFERS.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[size];
+        } else {
+            BUFFERS.remove();
+        }
+        return new ResponseBuffer(response, buffer, size);
+    }
+    
+    @Override
+    public void write(final int b) throws IOException {
+        if (out == null && count < limit) {
+            buffer[count++] = (byte) b;
+        } else {
+            overflow().write(b);
+        }
+    }
+    
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (out == null && count + length <= limit) {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        } else {
+            overflow().write(bytes, offset, length);
+        }
+    }
+    
+    private OutputStream overflow() throws IOException {
+        if (out == null) {
+            out = response.getOutputStream();
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+        return out;
+    }
+    
+    /**
+     * Writes the buffered body to the response, with a Content-Length if the body fits in the buffer, and 
+     * returns the buffer to the current thread.
+     * 
+     * @throws IOException if writing to the response fails.
+     */
+    void finish() throws IOException {
+        try {
+            if (out == null) {
+                response.setContentLength(count);
+                response.getOutputStream().write(buffer, 0, count);
+            } else {
+                out.flush();
+            }
+        } finally {
+            release();
+        }
+    }
+    
+    /**
+     * Returns the buffer to the current thread, discarding any buffered bytes that have not been written. The 
+     * thread keeps the larger buffer if it has acquired another one in the meantime.
+     */
+    void release() {
+        if (buffer != null) {
+            final byte[] current = BUFFERS.get();
+            if (current == null || current.length < buffer.length) {
+                BUFFERS.set(buffer);
+            }
+            buffer = null;
+        }
+    }
+
+}
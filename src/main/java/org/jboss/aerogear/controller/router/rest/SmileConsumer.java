@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.Iterator;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.Typed;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.log.LoggerMessages;
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
+
+/**
+ * Concrete Consumer that is able to unmarshall a Http request body in Jackson's binary Smile format.
+ * </p>
+ * The Smile ObjectMapper shares the configuration of the JSON ObjectMapper, see {@link JsonMapper#smileMapper()}. 
+ * Unmarshalling requires jackson-smile to be on the classpath.
+ * </p>
+ * The CDI bean types are restricted so that injection points of type {@link JsonConsumer} remain unambiguous.
+ */
+@Typed({ SmileConsumer.class, StreamingConsumer.class, Consumer.class })
+public class SmileConsumer extends JsonConsumer {
+    
+    private final boolean available;
+    
+    /**
+     * Creates a SmileConsumer that uses the default {@link JsonMapper}.
+     */
+    public SmileConsumer() {
+        this(JsonMapper.defaultMapper());
+    }
+    
+    /**
+     * Creates a SmileConsumer that uses the configuration of the {@link ObjectMapper} provided by the application, 
+     * if any.
+     * 
+     * @param objectMapperInstance the CDI {@link Instance} of the ObjectMapper.
+     */
+    @Inject
+    public SmileConsumer(final Instance<ObjectMapper> objectMapperInstance) {
+        this(JsonMapper.of(objectMapperInstance));
+    }
+    
+    public SmileConsumer(final JsonMapper jsonMapper) {
+        super(MediaType.SMILE.toString(), jsonMapper.smileMapper());
+        this.available = jsonMapper.smileMapper() != null;
+    }
+    
+    @Override
+    public <T> T unmarshall(final HttpServletRequest request, final Class<T> type) {
+        checkAvailable();
+        return super.unmarshall(request, type);
+    }
+    
+    @Override
+    public <T> Iterator<T> unmarshallElements(final HttpServletRequest request, final Class<T> elementType) {
+        checkAvailable();
+        return super.unmarshallElements(request, elementType);
+    }
+    
+    private void checkAvailable() {
+        if (!available) {
+            throw LoggerMessages.MESSAGES.smileNotAvailable(mediaType());
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "SmileConsumer[mediaType=" + mediaType() + ", available=" + available + "]";
+    }
+
+}
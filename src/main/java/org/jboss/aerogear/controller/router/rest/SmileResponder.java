@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.Typed;
+import javax.inject.Inject;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.Responder;
+import org.jboss.aerogear.controller.router.RouteContext;
+
+/**
+ * A RESTFul {@link Responder} that is able to return responses in Jackson's binary Smile format, which is more
+ * compact and faster to parse than JSON.
+ * </p>
+ * The Smile ObjectMapper shares the configuration of the JSON ObjectMapper, see {@link JsonMapper#smileMapper()}.
+ * Responses are written like byte output JSON responses, including the streaming of Iterator and Iterable results.
+ * This responder only accepts requests if jackson-smile is on the classpath.
+ * </p>
+ * The CDI bean types are restricted so that injection points of type {@link JsonResponder} remain unambiguous.
+ */
+@Typed({ SmileResponder.class, Responder.class })
+public class SmileResponder extends JsonResponder {
+    
+    private static final int BUFFER_SIZE = 8 * 1024;
+    
+    private final boolean available;
+    
+    /**
+     * Creates a SmileResponder that uses the default {@link JsonMapper}.
+     */
+    public SmileResponder() {
+        this(JsonMapper.defaultMapper());
+    }
+    
+    /**
+     * Creates a SmileResponder that uses the configuration of the {@link ObjectMapper} provided by the application, 
+     * if any.
+     * 
+     * @param objectMapperInstance the CDI {@link Instance} of the ObjectMapper.
+     */
+    @Inject
+    public SmileResponder(final Instance<ObjectMapper> objectMapperInstance) {
+        this(JsonMapper.of(objectMapperInstance));
+    }
+    
+    public SmileResponder(final JsonMapper jsonMapper) {
+        this(jsonMapper.smileMapper(), jsonMapper.smileMapper() != null);
+    }
+    
+    private SmileResponder(final JsonMapper smileMapper, final boolean available) {
+        super(MediaType.SMILE.toString(), smileMapper, JsonOutputConfig.enableByteOutput(BUFFER_SIZE));
+        this.available = available;
+    }
+    
+    /**
+     * Returns {@code true} if the passed-in media type is Smile and jackson-smile is on the classpath.
+     */
+    @Override
+    public boolean accepts(final String mediaType) {
+        return available && super.accepts(mediaType);
+    }
+    
+    /**
+     * Sets the Content-Type of the response and writes the entity. Unlike JSON responses, no character encoding 
+     * is set as Smile is a binary format.
+     */
+    @Override
+    public void respond(final Object entity, final RouteContext routeContext) throws Exception {
+        routeContext.getResponse().setContentType(mediaType());
+        writeResponse(entity, routeContext);
+    }
+
+}
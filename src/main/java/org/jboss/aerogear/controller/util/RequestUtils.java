@@ -17,16 +17,15 @@
 
 package org.jboss.aerogear.controller.util;
 
-import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.jboss.aerogear.controller.router.AcceptHeader;
+import org.jboss.aerogear.controller.router.AcceptHeaderCache;
+import org.jboss.aerogear.controller.router.MediaTypeSet;
 import org.jboss.aerogear.controller.router.RequestMethod;
 
-import com.google.common.base.Splitter;
-
 /**
  * Utility methods for various {@link HttpServletRequest} operation.
  */
@@ -60,24 +59,40 @@ public class RequestUtils {
         return RequestMethod.valueOf(httpServletRequest.getMethod());
     }
     
+    /**
+     * Returns the media type of the {@code Content-Type} header of the passed-in {@code HttpServletRequest}.
+     * 
+     * @param request the {@link HttpServletRequest}
+     * @return {@code String} the media type without parameters and in lower case, for example 'application/json', 
+     * or {@code null} if the request has no Content-Type.
+     * @see MediaTypeSet#normalize(String)
+     */
+    public static String extractContentType(final HttpServletRequest request) {
+        final String contentType = request.getContentType();
+        return contentType == null ? null : MediaTypeSet.normalize(contentType);
+    }
+    
     /**
      * Returns the {@code Accept header} from the passed-in {@code HttpServletRequest}.
      * 
      * @param request the {@link HttpServletRequest}
-     * @return {@code Set<String>} of the values of the Http Accept Header, or an empty list if
-     * there was not Accept header
+     * @return {@code Set<String>} of the acceptable media ranges of the Http Accept Header, without parameters 
+     * and in order of preference, or an empty list if there was not Accept header
      */
     public static Set<String> extractAcceptHeader(final HttpServletRequest request) {
-        final String acceptHeader = request.getHeader("Accept");
-        if (acceptHeader == null) {
-            return Collections.emptySet();
-        }
-        
-        final Set<String> acceptHeaders = new LinkedHashSet<String>();
-        for (String header : Splitter.on(',').trimResults().split(acceptHeader)) {
-            acceptHeaders.add(header);
-        }
-        return acceptHeaders;
+        return parseAcceptHeader(request).getMediaTypes();
+    }
+    
+    /**
+     * Parses the {@code Accept header} from the passed-in {@code HttpServletRequest}. Parsed headers are
+     * shared between requests using the {@link AcceptHeaderCache}.
+     * 
+     * @param request the {@link HttpServletRequest}
+     * @return {@link AcceptHeader} the parsed Accept Header, or {@link AcceptHeader#NONE} if
+     * there was not Accept header
+     */
+    public static AcceptHeader parseAcceptHeader(final HttpServletRequest request) {
+        return AcceptHeaderCache.getInstance().get(request.getHeader("Accept"));
     }
     
 }
@@ -3,6 +3,7 @@ package org.jboss.aerogear.controller;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.jboss.aerogear.controller.router.RequestMethod.GET;
 import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+import static org.jboss.aerogear.controller.router.RequestMethod.PUT;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -11,7 +12,10 @@ import java.util.Set;
 import org.jboss.aerogear.controller.router.AbstractRoutingModule;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteCache;
+import org.jboss.aerogear.controller.router.RouteCacheConfig;
 import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.error.ErrorRoute;
 import org.jboss.aerogear.controller.router.error.ErrorTarget;
 import org.junit.Test;
 
@@ -59,6 +63,198 @@ public class RoutesTest {
         assertThat(routes.hasRouteFor(GET, "/car/1", MediaType.defaultAcceptHeader())).isTrue();
     }
     
+    @Test
+    public void routesWithPathParametersMatchSingleSegment() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }.build();
+        assertThat(routes.hasRouteFor(GET, "/car", MediaType.defaultAcceptHeader())).isFalse();
+        assertThat(routes.hasRouteFor(GET, "/car/", MediaType.defaultAcceptHeader())).isFalse();
+        assertThat(routes.hasRouteFor(GET, "/car/1/wheels", MediaType.defaultAcceptHeader())).isFalse();
+        assertThat(routes.hasRouteFor(POST, "/car/1", MediaType.defaultAcceptHeader())).isFalse();
+    }
+
+    @Test
+    public void firstConfiguredRouteWins() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+                route()
+                        .from("/car/new")
+                        .on(GET)
+                        .to(SampleController.class).index();
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .to(SampleController.class).admin();
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/new", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+        assertThat(routes.routeFor(GET, "/car/1", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+        assertThat(routes.routeFor(GET, "/cars", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("admin");
+    }
+
+    @Test
+    public void literalRouteBeforeParameterizedRoute() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/new")
+                        .on(GET)
+                        .to(SampleController.class).index();
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/new", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("index");
+        assertThat(routes.routeFor(GET, "/car/1", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+    }
+
+    @Test
+    public void routeWithSameMethodAndPathFallsThroughOnProduces() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .produces(MediaType.JSON)
+                        .to(SampleController.class).find(param("id"));
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .to(SampleController.class).index();
+            }
+        }.build();
+        final Set<String> acceptHeaders = new HashSet<String>(Arrays.asList(MediaType.JSON.toString()));
+        assertThat(routes.routeFor(GET, "/car/1", acceptHeaders).getTargetMethod().getName()).isEqualTo("find");
+        assertThat(routes.routeFor(GET, "/car/1", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("index");
+    }
+    
+    @Test
+    public void routesPartitionedByMethod() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(POST)
+                        .to(SampleController.class).save(param(Car.class));
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .to(SampleController.class).index();
+                route()
+                        .from("/cars/{id}")
+                        .on(GET, POST)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/cars", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("index");
+        assertThat(routes.routeFor(POST, "/cars", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("save");
+        assertThat(routes.routeFor(POST, "/cars/1", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+        assertThat(routes.hasRouteFor(PUT, "/cars", MediaType.defaultAcceptHeader())).isFalse();
+    }
+
+    @Test
+    public void exactPathFallsThroughOnProduces() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(MediaType.JSON)
+                        .to(SampleController.class).admin();
+                route()
+                        .from("/{type}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("type"));
+            }
+        }.build();
+        final Set<String> acceptHeaders = new HashSet<String>(Arrays.asList(MediaType.JSON.toString()));
+        assertThat(routes.routeFor(GET, "/cars", acceptHeaders).getTargetMethod().getName()).isEqualTo("admin");
+        assertThat(routes.routeFor(GET, "/cars", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+    }
+
+    @Test
+    public void typedPathVariableFallsThroughToNextRoute() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id:long}")
+                        .on(GET)
+                        .to(SampleController.class).findById(param("id", long.class));
+                route()
+                        .from("/car/{name}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("name"));
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/10", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("findById");
+        assertThat(routes.routeFor(GET, "/car/ferrari", MediaType.defaultAcceptHeader()).getTargetMethod().getName()).isEqualTo("find");
+    }
+
+    @Test
+    public void routesWithCache() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }.build().withCache(RouteCacheConfig.enableCache(10));
+        final RouteCache cache = routes.getRouteCache();
+        final Route route = routes.routeFor(GET, "/car/1", MediaType.defaultAcceptHeader());
+        assertThat(routes.routeFor(GET, "/car/1", MediaType.defaultAcceptHeader())).isSameAs(route);
+        assertThat(routes.hasRouteFor(GET, "/car/1", new HashSet<String>(MediaType.defaultAcceptHeader()))).isTrue();
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(routes.hasRouteFor(GET, "/images/logo.png", MediaType.defaultAcceptHeader())).isFalse();
+        assertThat(routes.hasRouteFor(GET, "/images/logo.png", MediaType.defaultAcceptHeader())).isFalse();
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.hitCount()).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void routesWithCacheDisabled() {
+        Routes routes = new AbstractRoutingModule(){
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .to(SampleController.class).index();
+            }
+        }.build();
+        assertThat(routes.getRouteCache()).isNull();
+        assertThat(routes.withCache(RouteCacheConfig.disableCache())).isSameAs(routes);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void routeCacheWithInvalidSize() {
+        RouteCacheConfig.enableCache(0);
+    }
+
     @Test
     public void restfulRoute() {
         Routes routes = new AbstractRoutingModule(){
@@ -142,6 +338,57 @@ public class RoutesTest {
         assertThat(genErrorRoute.getTargetMethod().getName()).isEqualTo("error");
     }
 
+    @Test
+    public void exceptionRoutesFirstMatchWins() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() throws Exception {
+                route().on(SuperException.class).to(SampleController.class).superException();
+                route().on(SubException.class).to(SampleController.class).subException();
+            }
+        }.build();
+        final Route route = routes.routeFor(new SubException());
+        assertThat(route.getTargetMethod().getName()).isEqualTo("superException");
+        assertThat(routes.routeFor(new SubException())).isSameAs(route);
+        assertThat(routes.routeFor(new IllegalStateException())).isSameAs(ErrorRoute.DEFAULT.getRoute());
+    }
+
+    @Test
+    public void mightHaveRouteFor() {
+        final Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+                route()
+                        .from("/")
+                        .on(GET)
+                        .to(SampleController.class).index();
+            }
+        }.build();
+        assertThat(routes.mightHaveRouteFor("/cars/12")).isTrue();
+        assertThat(routes.mightHaveRouteFor("/cars")).isTrue();
+        assertThat(routes.mightHaveRouteFor("/")).isTrue();
+        assertThat(routes.mightHaveRouteFor("/images/logo.png")).isFalse();
+        assertThat(routes.mightHaveRouteFor("/car")).isFalse();
+    }
+
+    @Test
+    public void mightHaveRouteForParameterizedFirstSegment() {
+        final Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/{type}/{id}")
+                        .on(GET)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }.build();
+        assertThat(routes.mightHaveRouteFor("/images/logo.png")).isTrue();
+    }
+
     public static class SuperException extends Exception {
         private static final long serialVersionUID = 1L;
     }
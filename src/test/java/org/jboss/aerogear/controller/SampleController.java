@@ -1,5 +1,7 @@
 package org.jboss.aerogear.controller;
 
+import java.util.List;
+
 public class SampleController {
 
     public void index() {
@@ -19,12 +21,24 @@ public class SampleController {
     
     public void save(Car car, String metadata) {
     }
+    
+    public void save(String owner, Car car) {
+    }
 
     public void find(String id) {
     }
     
     public void find(String color, String brand) {
     }
+    
+    public void findById(long id) {
+    }
+    
+    public void findByIds(long[] ids) {
+    }
+    
+    public void findByIds(List<Long> ids) {
+    }
 
     public void admin() {
     }
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AcceptHeaderCacheTest {
+
+    @Test
+    public void cachesParsedHeaders() {
+        final AcceptHeaderCache cache = new AcceptHeaderCache(10);
+        final AcceptHeader acceptHeader = cache.get("application/json, text/html;q=0.5");
+        assertThat(cache.get("application/json, text/html;q=0.5")).isSameAs(acceptHeader);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.hitRate()).isEqualTo(0.5);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void noHeader() {
+        final AcceptHeaderCache cache = new AcceptHeaderCache(10);
+        assertThat(cache.get(null)).isSameAs(AcceptHeader.NONE);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void bounded() {
+        final AcceptHeaderCache cache = new AcceptHeaderCache(2);
+        cache.get("text/html");
+        cache.get("application/json");
+        cache.get("application/xml");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void reparsesWhenMediaTypesAreAdded() {
+        final AcceptHeaderCache cache = new AcceptHeaderCache(10);
+        final String mediaType = "application/vnd.cache-test";
+        final AcceptHeader before = cache.get(mediaType);
+        final MediaTypeSet produces = MediaTypeSet.of(Arrays.asList(mediaType));
+        assertThat(before.accepts(produces)).isFalse();
+        final AcceptHeader after = cache.get(mediaType);
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.accepts(produces)).isTrue();
+        assertThat(cache.get(mediaType)).isSameAs(after);
+    }
+
+}
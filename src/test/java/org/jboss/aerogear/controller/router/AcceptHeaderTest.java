@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AcceptHeaderTest {
+
+    private final MediaTypeSet jsonAndHtml = MediaTypeSet.of(Arrays.asList("application/json", "text/html"));
+    private final MediaTypeSet html = MediaTypeSet.of(Arrays.asList("text/html"));
+
+    @Test
+    public void noHeader() {
+        assertThat(AcceptHeader.parse(null)).isSameAs(AcceptHeader.NONE);
+        assertThat(AcceptHeader.NONE.isEmpty()).isTrue();
+        assertThat(AcceptHeader.NONE.accepts(html)).isTrue();
+        assertThat(AcceptHeader.NONE.negotiate(html)).isEmpty();
+    }
+
+    @Test
+    public void orderedByQuality() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("text/html;q=0.5, application/json");
+        assertThat(new ArrayList<String>(acceptHeader.getMediaTypes())).containsExactly("application/json", "text/html");
+        assertThat(acceptHeader.negotiate(jsonAndHtml)).containsExactly("application/json", "text/html");
+    }
+
+    @Test
+    public void parametersAreIgnored() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("Application/JSON; charset=UTF-8");
+        assertThat(new ArrayList<String>(acceptHeader.getMediaTypes())).containsExactly("application/json");
+        assertThat(acceptHeader.accepts(jsonAndHtml)).isTrue();
+        assertThat(acceptHeader.accepts(html)).isFalse();
+    }
+
+    @Test
+    public void wildcardSubtype() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("application/*");
+        assertThat(acceptHeader.accepts(jsonAndHtml)).isTrue();
+        assertThat(acceptHeader.accepts(html)).isFalse();
+        assertThat(acceptHeader.negotiate(jsonAndHtml)).containsExactly("application/json");
+    }
+
+    @Test
+    public void wildcardType() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("*/*");
+        assertThat(acceptHeader.acceptsAny()).isTrue();
+        assertThat(acceptHeader.accepts(html)).isTrue();
+        assertThat(acceptHeader.negotiate(html)).isEmpty();
+    }
+
+    @Test
+    public void zeroQualityIsNotAcceptable() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("*/*, text/html;q=0");
+        assertThat(new ArrayList<String>(acceptHeader.getMediaTypes())).containsExactly("*/*");
+        assertThat(acceptHeader.accepts(html)).isFalse();
+        assertThat(acceptHeader.accepts(jsonAndHtml)).isTrue();
+    }
+
+    @Test
+    public void mostSpecificRangeDeterminesQuality() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("application/*;q=0.2, text/html;q=0.5, application/json");
+        assertThat(acceptHeader.negotiate(jsonAndHtml)).containsExactly("application/json", "text/html");
+        assertThat(AcceptHeader.parse("application/*, application/json;q=0").accepts(jsonAndHtml)).isFalse();
+    }
+
+    @Test
+    public void equalityIgnoresPreference() {
+        final AcceptHeader first = AcceptHeader.parse("text/html, application/json;q=0.5");
+        final AcceptHeader second = AcceptHeader.parse("application/json, text/html");
+        assertThat(first).isEqualTo(second);
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+        assertThat(first).isNotEqualTo(AcceptHeader.parse("text/html"));
+    }
+
+}
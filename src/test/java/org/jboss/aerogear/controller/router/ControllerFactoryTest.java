@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ControllerFactoryTest {
+
+    @Mock
+    private BeanManager beanManager;
+    @Mock
+    private Bean<SampleController> bean;
+    @Mock
+    private CreationalContext<SampleController> creationalContext;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void dependentControllerIsCreatedPerRequestAndDestroyed() {
+        final SampleController controller = instrumentBean(Dependent.class);
+        final ControllerFactory factory = new ControllerFactory();
+        assertThat(factory.createController(SampleController.class, beanManager)).isSameAs(controller);
+        assertThat(factory.createController(SampleController.class, beanManager)).isSameAs(controller);
+        verify(beanManager, times(1)).getBeans(SampleController.class);
+        verify(bean, times(2)).create(creationalContext);
+        factory.releaseController(SampleController.class, controller);
+        verify(bean).destroy(controller, creationalContext);
+    }
+
+    @Test
+    public void normalScopedControllerIsShared() {
+        final SampleController controller = instrumentBean(ApplicationScoped.class);
+        when(beanManager.isNormalScope(ApplicationScoped.class)).thenReturn(true);
+        when(beanManager.getReference(bean, SampleController.class, creationalContext)).thenReturn(controller);
+        final ControllerFactory factory = new ControllerFactory();
+        assertThat(factory.createController(SampleController.class, beanManager)).isSameAs(controller);
+        assertThat(factory.createController(SampleController.class, beanManager)).isSameAs(controller);
+        factory.releaseController(SampleController.class, controller);
+        verify(beanManager, times(1)).getReference(bean, SampleController.class, creationalContext);
+        verify(bean, never()).create(creationalContext);
+        verify(bean, never()).destroy(controller, creationalContext);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private SampleController instrumentBean(final Class<? extends Annotation> scope) {
+        final Set<Bean<?>> beans = new HashSet<Bean<?>>(Collections.singleton(bean));
+        final SampleController controller = new SampleController();
+        when(beanManager.getBeans(SampleController.class)).thenReturn(beans);
+        when(beanManager.resolve(beans)).thenReturn((Bean) bean);
+        when(beanManager.createCreationalContext(bean)).thenReturn(creationalContext);
+        when(bean.getScope()).thenReturn((Class) scope);
+        when(bean.create(creationalContext)).thenReturn(controller);
+        return controller;
+    }
+
+    @Test (expected = RuntimeException.class)
+    @SuppressWarnings("unchecked")
+    public void noBean() {
+        when(beanManager.getBeans(SampleController.class)).thenReturn(Collections.<Bean<?>>emptySet());
+        when(beanManager.resolve(any(Set.class))).thenReturn(null);
+        new ControllerFactory().createController(SampleController.class, beanManager);
+    }
+
+}
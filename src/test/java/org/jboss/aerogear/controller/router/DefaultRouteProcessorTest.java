@@ -131,6 +131,7 @@ public class DefaultRouteProcessorTest {
         final Route route = routes.routeFor(RequestMethod.GET, "/car/{id}", MediaType.defaultAcceptHeader());
         router.process(new RouteContext(route, request, response, routes));
         verify(controller).find("3");
+        verify(controllerFactory).releaseController(SampleController.class, controller);
     }
 
     @Test
@@ -363,6 +364,81 @@ public class DefaultRouteProcessorTest {
         verify(controller).find("red", "Ferrari");
     }
     
+    @Test
+    public void testMultiplePathParameters() throws Exception {
+        final RoutingModule routingModule = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars/{color}/brands/{brand}")
+                        .on(RequestMethod.GET)
+                        .to(SampleController.class).find(param("color"), param("brand"));
+            }
+        };
+        final Routes routes = routingModule.build();
+        final SampleController controller = spy(new SampleController());
+        when(controllerFactory.createController(eq(SampleController.class), eq(beanManager))).thenReturn(controller);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/abc");
+        when(request.getRequestURI()).thenReturn("/abc/cars/red/brands/Ferrari");
+        final Route route = routes.routeFor(RequestMethod.GET, "/cars/red/brands/Ferrari", MediaType.defaultAcceptHeader());
+        router.process(new RouteContext(route, request, response, routes));
+        verify(controller).find("red", "Ferrari");
+    }
+    
+    @Test
+    public void testTypedPathParameter() throws Exception {
+        final RoutingModule routingModule = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars/{id:long}")
+                        .on(RequestMethod.GET)
+                        .to(SampleController.class).findById(param("id", long.class));
+            }
+        };
+        final Routes routes = routingModule.build();
+        final SampleController controller = spy(new SampleController());
+        when(controllerFactory.createController(eq(SampleController.class), eq(beanManager))).thenReturn(controller);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/abc");
+        when(request.getRequestURI()).thenReturn("/abc/cars/42");
+        final Route route = routes.routeFor(RequestMethod.GET, "/cars/42", MediaType.defaultAcceptHeader());
+        router.process(new RouteContext(route, request, response, routes));
+        verify(controller).findById(42L);
+    }
+    
+    @Test
+    public void testMultiValuedParameters() throws Exception {
+        final RoutingModule routingModule = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(RequestMethod.GET)
+                        .to(SampleController.class).findByIds(param("id", long[].class));
+                route()
+                        .from("/trucks")
+                        .on(RequestMethod.GET)
+                        .to(SampleController.class).findByIds(paramList("id", Long.class));
+            }
+        };
+        final Routes routes = routingModule.build();
+        final SampleController controller = spy(new SampleController());
+        when(controllerFactory.createController(eq(SampleController.class), eq(beanManager))).thenReturn(controller);
+        when(request.getParameterMap()).thenReturn(Collections.singletonMap("id", new String[] {"1", "2", "3"}));
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/abc");
+        when(request.getRequestURI()).thenReturn("/abc/cars");
+        router.process(new RouteContext(routes.routeFor(RequestMethod.GET, "/cars", MediaType.defaultAcceptHeader()), request, response, routes));
+        verify(controller).findByIds(new long[] {1, 2, 3});
+        when(request.getRequestURI()).thenReturn("/abc/trucks");
+        router.process(new RouteContext(routes.routeFor(RequestMethod.GET, "/trucks", MediaType.defaultAcceptHeader()), request, response, routes));
+        verify(controller).findByIds(Arrays.asList(1L, 2L, 3L));
+    }
+    
     @Test
     public void testCookieParmeters() throws Exception {
         final RoutingModule routingModule = new AbstractRoutingModule() {
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class DefaultRouterTest {
+
+    @Mock
+    private Instance<RoutingModule> routingModuleInstance;
+    @Mock
+    private RouteProcessor routeProcessor;
+    @Mock
+    private Instance<RouteCacheConfiguration> cacheConfigInstance;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+    @Mock
+    private ServletContext servletContext;
+
+    private DefaultRouter router;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(routingModuleInstance.isUnsatisfied()).thenReturn(false);
+        when(routingModuleInstance.get()).thenReturn(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(RequestMethod.GET)
+                        .to(SampleController.class).find(param("id"));
+            }
+        });
+        when(cacheConfigInstance.isUnsatisfied()).thenReturn(true);
+        router = new DefaultRouter(routingModuleInstance, routeProcessor, cacheConfigInstance);
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/abc");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept")).thenReturn("text/html");
+    }
+
+    @Test
+    public void hasRouteForStoresMatch() {
+        when(request.getRequestURI()).thenReturn("/abc/car/3");
+        assertThat(router.hasRouteFor(request)).isTrue();
+        final ArgumentCaptor<RouteMatch> match = ArgumentCaptor.forClass(RouteMatch.class);
+        verify(request).setAttribute(eq(RouteMatch.ATTRIBUTE_NAME), match.capture());
+        assertThat(match.getValue().getRequestPath()).isEqualTo("/car/3");
+        assertThat(match.getValue().getRoute().getPath()).isEqualTo("/car/{id}");
+    }
+
+    @Test
+    public void hasNoRouteForUnknownPrefix() {
+        when(request.getRequestURI()).thenReturn("/abc/images/logo.png");
+        assertThat(router.hasRouteFor(request)).isFalse();
+        verify(request, never()).getMethod();
+        verify(request, never()).getHeader("Accept");
+    }
+
+    @Test
+    public void hasNoRouteForRoutedPrefix() {
+        when(request.getRequestURI()).thenReturn("/abc/car/3/wheels");
+        assertThat(router.hasRouteFor(request)).isFalse();
+        verify(request).getMethod();
+        verify(request).getHeader("Accept");
+    }
+
+    @Test
+    public void dispatchReusesStoredMatch() throws Exception {
+        final RouteMatch match = storedMatch("/abc/car/3");
+        router.dispatch(request, response, chain);
+        verify(request).getHeader("Accept");
+        final ArgumentCaptor<RouteContext> routeContext = ArgumentCaptor.forClass(RouteContext.class);
+        verify(routeProcessor).process(routeContext.capture());
+        assertThat(routeContext.getValue().getRoute()).isSameAs(match.getRoute());
+        assertThat(routeContext.getValue().getAcceptHeaders()).isSameAs(match.getAcceptHeaders());
+    }
+
+    @Test (expected = ServletException.class)
+    public void dispatchIgnoresMatchForOtherMethod() throws Exception {
+        storedMatch("/abc/car/3");
+        when(request.getMethod()).thenReturn(RequestMethod.POST.toString());
+        router.dispatch(request, response, chain);
+    }
+
+    @Test
+    public void dispatchIgnoresMatchFromOtherRoutes() throws Exception {
+        when(request.getRequestURI()).thenReturn("/abc/car/3");
+        final RouteMatch match = new RouteMatch(RequestMethod.GET, "/car/3", MediaType.defaultAcceptHeader(), null);
+        when(request.getAttribute(RouteMatch.ATTRIBUTE_NAME)).thenReturn(match);
+        router.dispatch(request, response, chain);
+        verify(request).getHeader("Accept");
+        verify(routeProcessor).process(any(RouteContext.class));
+    }
+
+    @Test
+    public void dispatchIgnoresMatchForOtherPath() throws Exception {
+        when(request.getRequestURI()).thenReturn("/abc/car/3");
+        final RouteMatch match = new RouteMatch(RequestMethod.GET, "/other", MediaType.defaultAcceptHeader(), null);
+        when(request.getAttribute(RouteMatch.ATTRIBUTE_NAME)).thenReturn(match);
+        router.dispatch(request, response, chain);
+        verify(routeProcessor).process(any(RouteContext.class));
+    }
+
+    @Test (expected = ServletException.class)
+    public void dispatchWithoutRoute() throws Exception {
+        when(request.getRequestURI()).thenReturn("/abc/car/3/wheels");
+        router.dispatch(request, response, chain);
+    }
+
+    private RouteMatch storedMatch(final String requestURI) {
+        when(request.getRequestURI()).thenReturn(requestURI);
+        assertThat(router.hasRouteFor(request)).isTrue();
+        final ArgumentCaptor<RouteMatch> match = ArgumentCaptor.forClass(RouteMatch.class);
+        verify(request).setAttribute(eq(RouteMatch.ATTRIBUTE_NAME), match.capture());
+        when(request.getAttribute(RouteMatch.ATTRIBUTE_NAME)).thenReturn(match.getValue());
+        return match.getValue();
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class PathTemplateTest {
+
+    @Test
+    public void literalPath() {
+        final PathTemplate template = new PathTemplate("/cars");
+        assertThat(template.isParameterized()).isFalse();
+        assertThat(template.matches("/cars")).isTrue();
+        assertThat(template.matches("/cars/")).isFalse();
+        assertThat(template.matches("/car")).isFalse();
+        assertThat(template.matches("/carss")).isFalse();
+        assertThat(template.matches("")).isFalse();
+    }
+
+    @Test
+    public void singleVariable() {
+        final PathTemplate template = new PathTemplate("/cars/{id}");
+        assertThat(template.isParameterized()).isTrue();
+        assertThat(template.getVariableNames()).containsExactly("id");
+        assertThat(template.match("/cars/12").get("id")).isEqualTo("12");
+        assertThat(template.match("/cars/")).isNull();
+        assertThat(template.match("/cars")).isNull();
+        assertThat(template.match("/cars/12/wheels")).isNull();
+    }
+
+    @Test
+    public void multipleVariables() {
+        final PathTemplate template = new PathTemplate("/cars/{id}/wheels/{n}");
+        assertThat(template.getVariableNames()).containsExactly("id", "n");
+        final PathVariables variables = template.match("/cars/12/wheels/3");
+        assertThat(variables.size()).isEqualTo(2);
+        assertThat(variables.get("id")).isEqualTo("12");
+        assertThat(variables.get("n")).isEqualTo("3");
+        assertThat(variables.get(1)).isEqualTo("3");
+        assertThat(variables.get("brand")).isNull();
+        assertThat(template.match("/cars/12/tires/3")).isNull();
+    }
+
+    @Test
+    public void variableWithPrefixAndSuffix() {
+        final PathTemplate template = new PathTemplate("/cars/car-{id}.json");
+        assertThat(template.match("/cars/car-12.json").get("id")).isEqualTo("12");
+        assertThat(template.match("/cars/car-.json")).isNull();
+        assertThat(template.match("/cars/car-12.xml")).isNull();
+        assertThat(template.match("/cars/bus-12.json")).isNull();
+    }
+
+    @Test
+    public void typedVariables() {
+        final PathTemplate template = new PathTemplate("/cars/{id:long}/wheels/{n:int}");
+        assertThat(template.getVariableNames()).containsExactly("id", "n");
+        final PathVariables variables = template.match("/cars/-12/wheels/3");
+        assertThat(variables.get("id")).isEqualTo("-12");
+        assertThat(variables.get("n")).isEqualTo("3");
+        assertThat(template.matches("/cars/12a/wheels/3")).isFalse();
+        assertThat(template.matches("/cars/-/wheels/3")).isFalse();
+        assertThat(template.matches("/cars/9223372036854775807/wheels/2147483647")).isTrue();
+        assertThat(template.matches("/cars/9223372036854775808/wheels/3")).isFalse();
+        assertThat(template.matches("/cars/1/wheels/2147483648")).isFalse();
+    }
+
+    @Test
+    public void uuidVariable() {
+        final PathTemplate template = new PathTemplate("/cars/{id:uuid}");
+        assertThat(template.match("/cars/3b241101-e2bb-4255-8caf-4136c566a962").get("id")).isEqualTo("3b241101-e2bb-4255-8caf-4136c566a962");
+        assertThat(template.matches("/cars/3b241101-e2bb-4255-8caf-4136c566a96")).isFalse();
+        assertThat(template.matches("/cars/3b241101xe2bb-4255-8caf-4136c566a962")).isFalse();
+        assertThat(template.matches("/cars/zb241101-e2bb-4255-8caf-4136c566a962")).isFalse();
+    }
+
+    @Test
+    public void regexVariable() {
+        final PathTemplate template = new PathTemplate("/cars/{code:[A-Z]{3}}.json");
+        assertThat(template.getVariableNames()).containsExactly("code");
+        assertThat(template.match("/cars/ABC.json").get("code")).isEqualTo("ABC");
+        assertThat(template.matches("/cars/ABCD.json")).isFalse();
+        assertThat(template.matches("/cars/abc.json")).isFalse();
+    }
+
+    @Test
+    public void noVariables() {
+        assertThat(PathVariables.NONE.size()).isEqualTo(0);
+        assertThat(PathVariables.NONE.get("id")).isNull();
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void multipleVariablesInOneSegment() {
+        new PathTemplate("/cars/{id}-{n}");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void unterminatedVariable() {
+        new PathTemplate("/cars/{id");
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponderNegotiatorTest {
+
+    private Responder htmlResponder;
+    private Responder jsonResponder;
+    private Responder customResponder;
+    private Route route;
+
+    @Before
+    public void setUp() {
+        htmlResponder = responder(MediaType.HTML.toString());
+        jsonResponder = responder(MediaType.JSON.toString());
+        customResponder = responder("application/custom");
+        when(customResponder.accepts(MediaType.ANY.toString())).thenReturn(true);
+        when(customResponder.accepts("application/x-custom")).thenReturn(true);
+        route = mock(Route.class);
+        when(route.getProducedMediaTypes()).thenReturn(MediaTypeSet.of(Arrays.asList(MediaType.HTML.toString(),
+                MediaType.JSON.toString(), "application/x-custom")));
+    }
+
+    @Test
+    public void responderForMediaType() {
+        final ResponderNegotiator negotiator = negotiator();
+        assertThat(negotiator.responderFor(MediaType.HTML.toString())).isSameAs(htmlResponder);
+        assertThat(negotiator.responderFor(MediaType.JSON.toString())).isSameAs(jsonResponder);
+        assertThat(negotiator.responderFor(MediaType.ANY.toString())).isSameAs(customResponder);
+        assertThat(negotiator.responderFor("application/x-custom")).isSameAs(customResponder);
+        assertThat(negotiator.responderFor("application/unknown")).isNull();
+    }
+
+    @Test
+    public void firstRegisteredResponderWins() {
+        final Responder otherJsonResponder = responder(MediaType.JSON.toString());
+        final ResponderNegotiator negotiator = new ResponderNegotiator(Arrays.asList(jsonResponder, otherJsonResponder));
+        assertThat(negotiator.responderFor(MediaType.JSON.toString())).isSameAs(jsonResponder);
+    }
+
+    @Test
+    public void negotiate() {
+        final ResponderNegotiator negotiator = negotiator();
+        assertThat(negotiator.negotiate(route, acceptHeader("application/json, text/html;q=0.9"))).isSameAs(jsonResponder);
+        assertThat(negotiator.negotiate(route, acceptHeader("application/json;q=0.5, text/html"))).isSameAs(htmlResponder);
+        assertThat(negotiator.negotiate(route, acceptHeader("application/x-custom"))).isSameAs(customResponder);
+        assertThat(negotiator.negotiate(route, acceptHeader("application/xml, */*"))).isSameAs(customResponder);
+        assertThat(negotiator.negotiate(route, AcceptHeader.NONE)).isSameAs(customResponder);
+        assertThat(negotiator.negotiate(route, acceptHeader("application/xml"))).isNull();
+    }
+
+    @Test
+    public void negotiatedResponderIsCached() {
+        final ResponderNegotiator negotiator = negotiator();
+        final AcceptHeader acceptHeader = acceptHeader("application/json");
+        when(route.getProducedMediaTypes()).thenReturn(MediaTypeSet.of(Arrays.asList(MediaType.JSON.toString())));
+        assertThat(negotiator.negotiate(route, acceptHeader)).isSameAs(jsonResponder);
+        assertThat(negotiator.negotiate(route, acceptHeader)).isSameAs(jsonResponder);
+        verify(route, times(1)).getProducedMediaTypes();
+    }
+
+    @Test
+    public void acceptsIsCalledOncePerMediaType() {
+        final ResponderNegotiator negotiator = negotiator();
+        negotiator.negotiate(route, acceptHeader("application/json"));
+        negotiator.negotiate(route, AcceptHeader.NONE);
+        negotiator.responderFor(MediaType.JSON.toString());
+        verify(htmlResponder, times(1)).accepts(MediaType.JSON.toString());
+        verify(jsonResponder, times(1)).accepts(MediaType.JSON.toString());
+        verify(htmlResponder, times(1)).accepts(MediaType.ANY.toString());
+    }
+
+    private ResponderNegotiator negotiator() {
+        return new ResponderNegotiator(Arrays.asList(htmlResponder, jsonResponder, customResponder));
+    }
+
+    private static AcceptHeader acceptHeader(final String header) {
+        return AcceptHeaderCache.getInstance().get(header);
+    }
+
+    private static Responder responder(final String mediaType) {
+        final Responder responder = mock(Responder.class);
+        when(responder.mediaType()).thenReturn(mediaType);
+        when(responder.accepts(anyString())).thenReturn(false);
+        when(responder.accepts(mediaType)).thenReturn(true);
+        return responder;
+    }
+
+}
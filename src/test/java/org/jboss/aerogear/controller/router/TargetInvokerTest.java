@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Test;
+
+public class TargetInvokerTest {
+
+    @Test
+    public void invokesPublicMethod() throws Exception {
+        final TargetInvoker invoker = TargetInvoker.forMethod(SampleController.class, 
+                SampleController.class.getMethod("find", String.class, String.class));
+        assertThat(invoker.toString()).startsWith("FastInvoker");
+        final SampleController controller = spy(new SampleController());
+        assertThat(invoker.invoke(controller, "red", "Ford")).isNull();
+        verify(controller).find("red", "Ford");
+    }
+
+    @Test
+    public void invokesMethodOfNonPublicClass() throws Exception {
+        final TargetInvoker invoker = TargetInvoker.forMethod(Hidden.class, Hidden.class.getMethod("echo", int.class));
+        assertThat(invoker.toString()).startsWith("ReflectionInvoker");
+        assertThat(invoker.invoke(new Hidden(), 3)).isEqualTo(3);
+    }
+
+    @Test (expected = InvocationTargetException.class)
+    public void wrapsExceptions() throws Exception {
+        final TargetInvoker invoker = TargetInvoker.forMethod(SampleController.class, 
+                SampleController.class.getMethod("throwSampleControllerException"));
+        invoker.invoke(new SampleController());
+    }
+
+    static class Hidden {
+        public int echo(final int value) {
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.compression;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.AcceptHeader;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.Routes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class CompressionHandlerTest {
+
+    private static final String BODY = "{\"cars\":[{\"color\":\"red\",\"brand\":\"Ferrari\"},{\"color\":\"red\",\"brand\":\"Ferrari\"}]}";
+
+    @Mock
+    private Route route;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private Routes routes;
+    @Mock
+    private Instance<CompressionConfiguration> configInstance;
+    private ByteArrayOutputStream body;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                body.write(b);
+            }
+        });
+        when(response.getWriter()).thenReturn(new PrintWriter(new OutputStreamWriter(body, "UTF-8"), true));
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+    }
+
+    @Test
+    public void compressionDisabledByDefault() throws Exception {
+        when(configInstance.isUnsatisfied()).thenReturn(true);
+        final RouteContext routeContext = routeContext();
+        final WritingProcessor processor = new WritingProcessor(BODY);
+        new CompressionHandler(processor, configInstance).process(routeContext);
+        assertThat(processor.routeContext).isSameAs(routeContext);
+        verify(response, never()).addHeader("Vary", "Accept-Encoding");
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+        handler(10).process(routeContext());
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response, never()).setContentLength(anyInt());
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(BODY);
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip;q=0.5, deflate");
+        handler(10).process(routeContext());
+        verify(response).setHeader("Content-Encoding", "deflate");
+        assertThat(read(new InflaterInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(BODY);
+    }
+
+    @Test
+    public void bodyBelowMinimumSizeIsNotCompressed() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        handler(1024).process(routeContext());
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setHeader(eq("Content-Encoding"), eq("gzip"));
+        verify(response).setContentLength(BODY.length());
+        assertThat(body.toString("UTF-8")).isEqualTo(BODY);
+    }
+
+    @Test
+    public void noAcceptEncoding() throws Exception {
+        final RouteContext routeContext = routeContext();
+        final WritingProcessor processor = new WritingProcessor(BODY);
+        new CompressionHandler(processor, config(10)).process(routeContext);
+        assertThat(processor.routeContext).isSameAs(routeContext);
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        assertThat(body.toString("UTF-8")).isEqualTo(BODY);
+    }
+
+    @Test
+    public void bodyLargerThanChunk() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            large.append(i).append(',');
+        }
+        new CompressionHandler(new WritingProcessor(large.toString()), config(10)).process(routeContext());
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(large.toString());
+    }
+
+    @Test
+    public void deflaterIsReusedAcrossResponses() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        handler(10).process(routeContext());
+        body.reset();
+        handler(10).process(routeContext());
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(BODY);
+    }
+
+    @Test
+    public void contentEncodingSetByApplication() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                routeContext.getResponse().setHeader("Content-Encoding", "identity");
+                routeContext.getResponse().getOutputStream().write(BODY.getBytes("UTF-8"));
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+        verify(response).setHeader("Content-Encoding", "identity");
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+        assertThat(body.toString("UTF-8")).isEqualTo(BODY);
+    }
+
+    @Test
+    public void flushedResponseIsNotCompressed() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                final ServletOutputStream out = routeContext.getResponse().getOutputStream();
+                out.write(BODY.substring(0, 5).getBytes("UTF-8"));
+                routeContext.getResponse().flushBuffer();
+                assertThat(body.toString("UTF-8")).isEqualTo(BODY.substring(0, 5));
+                out.write(BODY.substring(5).getBytes("UTF-8"));
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+        verify(response).flushBuffer();
+        verify(response, never()).setHeader(eq("Content-Encoding"), eq("gzip"));
+        assertThat(body.toString("UTF-8")).isEqualTo(BODY);
+    }
+
+    @Test
+    public void responseFlushedAfterCompressionStarted() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                final ServletOutputStream out = routeContext.getResponse().getOutputStream();
+                out.write(BODY.substring(0, 20).getBytes("UTF-8"));
+                routeContext.getResponse().flushBuffer();
+                out.write(BODY.substring(20).getBytes("UTF-8"));
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+        verify(response).flushBuffer();
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(BODY);
+    }
+
+    @Test
+    public void buffersAreSharedAcrossMinimumSizes() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        handler(1024).process(routeContext());
+        assertThat(body.toString("UTF-8")).isEqualTo(BODY);
+        body.reset();
+        handler(10).process(routeContext());
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(BODY);
+    }
+
+    @Test
+    public void errorDiscardsBufferedBody() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                routeContext.getResponse().getOutputStream().write(BODY.substring(0, 5).getBytes("UTF-8"));
+                routeContext.getResponse().sendError(404, "Not Found");
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+        verify(response).sendError(404, "Not Found");
+        verify(response, never()).setContentLength(anyInt());
+        verify(response, never()).setHeader(eq("Content-Encoding"), eq("gzip"));
+        assertThat(body.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void redirectDiscardsBufferedBody() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                routeContext.getResponse().getOutputStream().write(BODY.substring(0, 5).getBytes("UTF-8"));
+                routeContext.getResponse().sendRedirect("/cars/1");
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+        verify(response).sendRedirect("/cars/1");
+        verify(response, never()).setContentLength(anyInt());
+        assertThat(body.size()).isEqualTo(0);
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void errorAfterCompressionStarted() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final RouteProcessor processor = new RouteProcessor() {
+            @Override
+            public void process(final RouteContext routeContext) throws Exception {
+                routeContext.getResponse().getOutputStream().write(BODY.getBytes("UTF-8"));
+                routeContext.getResponse().sendError(500);
+            }
+        };
+        new CompressionHandler(processor, config(10)).process(routeContext());
+    }
+
+    @Test
+    public void negotiate() {
+        assertThat(ContentEncoding.negotiate(null)).isNull();
+        assertThat(ContentEncoding.negotiate("identity")).isNull();
+        assertThat(ContentEncoding.negotiate("gzip")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("deflate, gzip")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("deflate")).isEqualTo(ContentEncoding.DEFLATE);
+        assertThat(ContentEncoding.negotiate("gzip;q=0, deflate;q=0.1")).isEqualTo(ContentEncoding.DEFLATE);
+        assertThat(ContentEncoding.negotiate("gzip;q=0")).isNull();
+        assertThat(ContentEncoding.negotiate("*")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("*;q=0")).isNull();
+        assertThat(ContentEncoding.negotiate("gzip;q=0, *")).isEqualTo(ContentEncoding.DEFLATE);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void negativeMinimumSize() {
+        CompressionConfig.enableCompression(-1);
+    }
+
+    private CompressionHandler handler(final int minimumSize) {
+        return new CompressionHandler(new WritingProcessor(BODY), config(minimumSize));
+    }
+
+    private Instance<CompressionConfiguration> config(final int minimumSize) {
+        when(configInstance.isUnsatisfied()).thenReturn(false);
+        when(configInstance.get()).thenReturn(CompressionConfig.enableCompression(minimumSize));
+        return configInstance;
+    }
+
+    private RouteContext routeContext() {
+        return new RouteContext(route, "/cars", AcceptHeader.NONE, request, response, routes);
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] bytes = new byte[512];
+        int read;
+        while ((read = in.read(bytes)) != -1) {
+            out.write(bytes, 0, read);
+        }
+        return out.toString("UTF-8");
+    }
+
+    private static class WritingProcessor implements RouteProcessor {
+        private final String body;
+        private RouteContext routeContext;
+
+        private WritingProcessor(final String body) {
+            this.body = body;
+        }
+
+        @Override
+        public void process(final RouteContext routeContext) throws Exception {
+            this.routeContext = routeContext;
+            routeContext.getResponse().setContentLength(body.length());
+            routeContext.getResponse().getWriter().write(body);
+            routeContext.getResponse().getWriter().flush();
+        }
+    }
+
+}
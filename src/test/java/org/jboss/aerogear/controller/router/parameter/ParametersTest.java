@@ -19,14 +19,22 @@ package org.jboss.aerogear.controller.router.parameter;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.Cookie;
@@ -35,8 +43,11 @@ import javax.servlet.http.HttpServletRequest;
 import org.jboss.aerogear.controller.Car;
 import org.jboss.aerogear.controller.SampleController;
 import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.PathTemplate;
+import org.jboss.aerogear.controller.router.PathVariables;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -64,13 +75,15 @@ public class ParametersTest {
         when(routeContext.getRoute()).thenReturn(route);
         when(route.getPath()).thenReturn("/cars");
         when(routeContext.getRequestPath()).thenReturn("/cars");
+        when(routeContext.getPathVariables()).thenReturn(PathVariables.NONE);
     }
     
     @Test
     public void extractPathParameter() {
         when(route.getPath()).thenReturn("/cars/{id}");
         when(routeContext.getRequestPath()).thenReturn("/cars/2");
-        final Optional<String> param = Parameters.extractPathParam(routeContext);
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{id}").match("/cars/2"));
+        final Optional<String> param = Parameters.extractPathParam(routeContext, new RequestParameter<String>("id", Parameter.Type.REQUEST, String.class));
         assertThat(param.get()).isEqualTo("2");
     }
     
@@ -78,7 +91,43 @@ public class ParametersTest {
     public void extractPathParameterButNoParamInRequest() {
         when(route.getPath()).thenReturn("/cars/{id}");
         when(routeContext.getRequestPath()).thenReturn("/c");
-        assertThat(Parameters.extractPathParam(routeContext).isPresent()).isFalse();
+        when(routeContext.getPathVariables()).thenReturn(PathVariables.NONE);
+        assertThat(Parameters.extractPathParam(routeContext, new RequestParameter<String>("id", Parameter.Type.REQUEST, String.class)).isPresent()).isFalse();
+    }
+    
+    @SuppressWarnings("deprecation")
+    @Test
+    public void extractPathParameterWithoutName() {
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{id}").match("/cars/2"));
+        assertThat(Parameters.extractPathParam(routeContext).get()).isEqualTo("2");
+    }
+    
+    @Test
+    public void extractPathParameterFromOnlyVariable() {
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("id", String.class)));
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{carId}").match("/cars/2"));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args[0]).isEqualTo("2");
+    }
+    
+    @Test (expected = RuntimeException.class)
+    public void extractPathParameterWithOtherNameFromSeveralVariables() {
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("id", String.class)));
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{color}/brands/{brand}").match("/cars/red/brands/Ferrari"));
+        Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+    }
+    
+    @Test
+    public void extractMultiplePathParameters() {
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("color", String.class), Parameters.param("brand", String.class)));
+        when(route.getPath()).thenReturn("/cars/{color}/brands/{brand}");
+        when(routeContext.getRequestPath()).thenReturn("/cars/red/brands/Ferrari");
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{color}/brands/{brand}").match("/cars/red/brands/Ferrari"));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args).isEqualTo(new Object[] {"red", "Ferrari"});
     }
     
     @Test
@@ -86,7 +135,16 @@ public class ParametersTest {
         when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", Car.class));
         final Map<String, String[]> paramMap = RequestParams.param("car.color", "red").add("car.brand","Ferrari").getParamMap();
         when(request.getParameterMap()).thenReturn(paramMap);
-        final Optional<?> optional = Parameters.extractIogiParam(routeContext);
+        final Optional<?> optional = Parameters.extractIogiParam(routeContext, 0);
+        assertThat(((Car)optional.get()).getColor()).isEqualTo("red");
+    }
+    
+    @Test
+    public void extractIogiParamsAtPosition() throws Exception {
+        when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", String.class, Car.class));
+        final Map<String, String[]> paramMap = RequestParams.param("car.color", "red").add("car.brand","Ferrari").getParamMap();
+        when(request.getParameterMap()).thenReturn(paramMap);
+        final Optional<?> optional = Parameters.extractIogiParam(routeContext, 1);
         assertThat(((Car)optional.get()).getColor()).isEqualTo("red");
     }
     
@@ -95,20 +153,53 @@ public class ParametersTest {
         when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", Car.class));
         final Map<String, String[]> paramMap = RequestParams.param("name", "Herbi").getParamMap();
         when(request.getParameterMap()).thenReturn(paramMap);
-        final Optional<?> optional = Parameters.extractIogiParam(routeContext);
+        final Optional<?> optional = Parameters.extractIogiParam(routeContext, 0);
         assertThat(optional.isPresent()).isFalse();
     }
     
+    @Test
+    public void extractIogiParamsIgnoresUnrelatedParams() throws Exception {
+        when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", Car.class));
+        final Map<String, String[]> paramMap = RequestParams.param("car.color", "red").add("car.brand", "Ferrari")
+                .add("carpet", "blue").add("name", "Herbi").getParamMap();
+        when(request.getParameterMap()).thenReturn(paramMap);
+        final Optional<?> optional = Parameters.extractIogiParam(routeContext, 0);
+        assertThat(((Car)optional.get()).getBrand()).isEqualTo("Ferrari");
+    }
+    
+    @Test
+    public void targetIsCreatedOncePerType() {
+        assertThat(Parameters.targetFor(Car.class)).isSameAs(Parameters.targetFor(Car.class));
+        assertThat(Parameters.targetFor(Car.class).getName()).isEqualTo("car");
+    }
+    
     @Test
     public void extractPathParam() {
         when(request.getParameterMap()).thenReturn(RequestParams.empty());
         when(route.getParameters()).thenReturn(asList(Parameters.param("id", String.class)));
         when(route.getPath()).thenReturn("/cars/{id}");
         when(routeContext.getRequestPath()).thenReturn("/cars/2");
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{id}").match("/cars/2"));
         final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
         assertThat(args[0]).isEqualTo("2");
     }
     
+    @Test (expected = IllegalArgumentException.class)
+    public void paramWithoutConverter() {
+        Parameters.param("date", Date.class);
+    }
+    
+    @Test (expected = IllegalArgumentException.class)
+    public void paramArrayWithoutConverter() {
+        Parameters.param("dates", Date[].class);
+    }
+    
+    @Test
+    public void paramOfStringSupertype() {
+        final RequestParameter<?> parameter = (RequestParameter<?>) Parameters.param("name", Object.class);
+        assertThat(Parameters.convert("Newman", parameter)).isEqualTo("Newman");
+    }
+    
     @Test
     public void extractFormParams() throws Exception{
         when(request.getParameterMap()).thenReturn(RequestParams.param("name", "Newman").getParamMap());
@@ -145,6 +236,162 @@ public class ParametersTest {
         assertThat(((Car)args[0]).getColor()).isEqualTo("red");
     }
     
+    @Test
+    public void extractFormParamIogiNotFirstParameter() throws Exception {
+        final Map<String, String[]> paramMap = RequestParams.param("owner", "Newman").add("car.color", "red").add("car.brand", "Ferrari").getParamMap();
+        when(request.getParameterMap()).thenReturn(paramMap);
+        when(route.getParameters()).thenReturn(Arrays.<Parameter<?>>asList(Parameters.param("owner", String.class), Parameters.param(Car.class)));
+        when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", String.class, Car.class));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args[0]).isEqualTo("Newman");
+        assertThat(((Car)args[1]).getColor()).isEqualTo("red");
+    }
+    
+    @Test
+    public void extractFormParamIogiConversions() throws Exception {
+        final Map<String, String[]> paramMap = RequestParams.param("order.status", "SHIPPED").add("order.gift", "true")
+                .add("order.total", "12.50").getParamMap();
+        when(request.getParameterMap()).thenReturn(paramMap);
+        when(route.getParameters()).thenReturn(asList(Parameters.param(Order.class)));
+        final Order order = (Order) Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap())[0];
+        assertThat(order.getStatus()).isEqualTo(Order.Status.SHIPPED);
+        assertThat(order.isGift()).isTrue();
+        assertThat(order.getTotal()).isEqualTo(new BigDecimal("12.50"));
+    }
+    
+    @Test
+    public void extractEntityByContentType() throws Exception {
+        final Car car = new Car("red", "Ferrari");
+        final Consumer jsonConsumer = mock(Consumer.class);
+        when(jsonConsumer.unmarshall(request, Car.class)).thenReturn(car);
+        final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
+        consumers.put("application/json", jsonConsumer);
+        consumers.put("application/xml", mock(Consumer.class));
+        when(request.getContentType()).thenReturn("application/json; charset=UTF-8");
+        when(route.consumes()).thenReturn(new LinkedHashSet<String>(Arrays.asList("application/xml", "application/json")));
+        when(route.getParameters()).thenReturn(asList(Parameters.param(Car.class)));
+        when(route.getTargetMethod()).thenReturn(SampleController.class.getMethod("save", Car.class));
+        final Object[] args = Parameters.extractArguments(routeContext, consumers);
+        assertThat(args[0]).isSameAs(car);
+        verify(request, never()).getParameterMap();
+    }
+    
+    @Test
+    public void extractMultiValuedParams() {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("id", "1").add("ids", "1", "2", "3").getParamMap());
+        when(route.getParameters()).thenReturn(Arrays.<Parameter<?>>asList(Parameters.param("ids", long[].class), 
+                Parameters.param("ids", String[].class), Parameters.paramList("ids", Integer.class), Parameters.param("id", int[].class)));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat((long[]) args[0]).isEqualTo(new long[] {1, 2, 3});
+        assertThat((String[]) args[1]).isEqualTo(new String[] {"1", "2", "3"});
+        assertThat((List<?>) args[2]).containsExactly(1, 2, 3);
+        assertThat((int[]) args[3]).isEqualTo(new int[] {1});
+    }
+    
+    @Test
+    public void extractMultiValuedParamWithDefaultValue() {
+        final Parameter<long[]> parameter = Parameters.param("ids", new long[] {0}, long[].class);
+        assertThat(parameter).isInstanceOf(MultiValuedParameter.class);
+        when(route.getParameters()).thenReturn(Arrays.<Parameter<?>>asList(parameter));
+        when(request.getParameterMap()).thenReturn(RequestParams.param("ids", "1").getParamMap());
+        assertThat((long[]) Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap())[0]).isEqualTo(new long[] {1});
+    }
+    
+    @Test
+    public void extractMultiValuedParamDefaultValueWhenMissing() {
+        when(route.getParameters()).thenReturn(Arrays.<Parameter<?>>asList(Parameters.param("ids", new long[] {0}, long[].class)));
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        assertThat((long[]) Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap())[0]).isEqualTo(new long[] {0});
+    }
+    
+    @Test
+    public void extractMultiValuedHeaderParam() {
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        when(request.getHeaders("tag")).thenReturn(Collections.enumeration(Arrays.asList("a", "b")));
+        when(route.getParameters()).thenReturn(asList(Parameters.paramList("tag", String.class)));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat((List<?>) args[0]).containsExactly("a", "b");
+    }
+    
+    @Test (expected = RuntimeException.class)
+    public void shouldThrowIfMultiValuedParamCannotBeConverted() {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("ids", "1", "one").getParamMap());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("ids", long[].class)));
+        Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+    }
+    
+    @Test (expected = RuntimeException.class)
+    public void shouldThrowIfSingleValuedParamHasMultipleValues() {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("id", "1", "2").getParamMap());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("id", long.class)));
+        Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+    }
+    
+    @Test
+    public void extractElementsWithStreamingConsumer() throws Exception {
+        final Iterator<Car> cars = Arrays.asList(new Car("red", "Ferrari")).iterator();
+        final StreamingConsumer jsonConsumer = mock(StreamingConsumer.class);
+        when(jsonConsumer.unmarshallElements(request, Car.class)).thenReturn(cars);
+        when(request.getContentType()).thenReturn("application/json");
+        when(route.consumes()).thenReturn(Collections.singleton("application/json"));
+        when(route.getParameters()).thenReturn(asList(Parameters.paramIterator(Car.class)));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>singletonMap("application/json", jsonConsumer));
+        assertThat(args[0]).isSameAs(cars);
+        verify(jsonConsumer, never()).unmarshall(request, Iterator.class);
+    }
+    
+    @Test
+    public void extractElementsWithConsumer() throws Exception {
+        final Consumer xmlConsumer = mock(Consumer.class);
+        when(xmlConsumer.unmarshall(request, Car[].class)).thenReturn(new Car[] {new Car("red", "Ferrari"), new Car("blue", "Fiat")});
+        when(route.consumes()).thenReturn(Collections.singleton("application/xml"));
+        when(route.getParameters()).thenReturn(asList(Parameters.paramIterator(Car.class)));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>singletonMap("application/xml", xmlConsumer));
+        final Iterator<?> cars = (Iterator<?>) args[0];
+        assertThat(((Car) cars.next()).getBrand()).isEqualTo("Ferrari");
+        assertThat(((Car) cars.next()).getBrand()).isEqualTo("Fiat");
+        assertThat(cars.hasNext()).isFalse();
+    }
+    
+    @Test
+    public void extractArgumentsUsesRoutePlan() throws Exception {
+        final ExtractionPlan plan = ExtractionPlan.compile(Arrays.<Parameter<?>>asList(Parameters.param("name", String.class)), 
+                SampleController.class.getMethod("client", String.class));
+        when(request.getParameterMap()).thenReturn(RequestParams.param("name", "Newman").getParamMap());
+        when(route.getExtractionPlan()).thenReturn(plan);
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args).containsOnly("Newman");
+        verify(route, never()).getParameters();
+    }
+    
+    @Test
+    public void extractTypedQueryParams() {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("id", "10").add("uuid", "3b241101-e2bb-4255-8caf-4136c566a962").getParamMap());
+        final List<Parameter<?>> parameters = asList(Parameters.param("id", long.class), Parameters.param("uuid", UUID.class));
+        parameters.add(Parameters.param("active", true, Boolean.class));
+        when(route.getParameters()).thenReturn(parameters);
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args[0]).isEqualTo(10L);
+        assertThat(args[1]).isEqualTo(UUID.fromString("3b241101-e2bb-4255-8caf-4136c566a962"));
+        assertThat(args[2]).isEqualTo(Boolean.TRUE);
+    }
+    
+    @Test
+    public void extractTypedPathParam() {
+        when(request.getParameterMap()).thenReturn(RequestParams.empty());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("id", int.class)));
+        when(routeContext.getPathVariables()).thenReturn(new PathTemplate("/cars/{id:int}").match("/cars/2"));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args[0]).isEqualTo(2);
+    }
+    
+    @Test (expected = RuntimeException.class)
+    public void shouldThrowIfTypedParamCannotBeConverted() {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("id", "abc").getParamMap());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("id", long.class)));
+        Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+    }
+    
     @Test
     public void extractHeaderParam() {
         when(request.getHeader("x-header")).thenReturn("headerValue");
@@ -214,6 +461,20 @@ public class ParametersTest {
         assertThat(args[0]).isEqualTo("cookieValue");
     }
     
+    @Test
+    public void requestValuesAreReadOnce() {
+        final Cookie color = new Cookie("color", "red");
+        final Cookie brand = new Cookie("brand", "Ferrari");
+        when(request.getCookies()).thenReturn(new Cookie[] {color, brand});
+        when(request.getParameterMap()).thenReturn(RequestParams.param("model", "F40").getParamMap());
+        when(route.getParameters()).thenReturn(asList(Parameters.param("color", String.class), Parameters.param("brand", String.class), 
+                Parameters.param("model", String.class)));
+        final Object[] args = Parameters.extractArguments(routeContext, Collections.<String, Consumer>emptyMap());
+        assertThat(args).isEqualTo(new Object[] {"red", "Ferrari", "F40"});
+        verify(request, times(1)).getCookies();
+        verify(request, times(1)).getParameterMap();
+    }
+    
     @Test (expected = RuntimeException.class)
     public void extractCookieParamMissingFromRequest() {
         final List<Parameter<?>> parameters = asList(Parameters.param("testCookie", String.class));
@@ -225,24 +486,58 @@ public class ParametersTest {
         return new LinkedList<Parameter<?>>(Arrays.asList(p));
     }
 
+    public static class Order {
+        
+        public enum Status { OPEN, SHIPPED }
+        
+        private Status status;
+        private boolean gift;
+        private BigDecimal total;
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public void setStatus(final Status status) {
+            this.status = status;
+        }
+        
+        public boolean isGift() {
+            return gift;
+        }
+        
+        public void setGift(final boolean gift) {
+            this.gift = gift;
+        }
+        
+        public BigDecimal getTotal() {
+            return total;
+        }
+        
+        public void setTotal(final BigDecimal total) {
+            this.total = total;
+        }
+        
+    }
+    
     private static class RequestParams {
         
         final Map<String, String[]> paramMap = new HashMap<String, String[]>();
         
-        private RequestParams(final String name, final String value) {
-            add(name, value);
+        private RequestParams(final String name, final String... values) {
+            add(name, values);
         }
         
-        public static RequestParams param(final String name, final String value) {
-            return new RequestParams(name, value);
+        public static RequestParams param(final String name, final String... values) {
+            return new RequestParams(name, values);
         }
         
         public static Map<String, String[]> empty() {
             return Collections.emptyMap();
         }
         
-        public RequestParams add(final String name, final String value) {
-            paramMap.put(name, new String[] {value});
+        public RequestParams add(final String name, final String... values) {
+            paramMap.put(name, values);
             return this;
         }
 
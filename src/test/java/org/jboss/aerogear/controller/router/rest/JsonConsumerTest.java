@@ -22,10 +22,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Iterator;
 
+import javax.enterprise.inject.Instance;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,6 +42,8 @@ public class JsonConsumerTest {
     private HttpServletRequest request;
     @Mock
     private ServletInputStream servletInputStream;
+    @Mock
+    private Instance<ObjectMapper> objectMapperInstance;
     
     @Before
     public void setup() {
@@ -60,6 +66,43 @@ public class JsonConsumerTest {
         assertThat(entity.getAge()).isEqualTo(44);
     }
     
+    @Test
+    public void unmarshallWithProvidedObjectMapper() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        when(objectMapperInstance.isUnsatisfied()).thenReturn(false);
+        when(objectMapperInstance.get()).thenReturn(objectMapper);
+        final JsonConsumer consumer = new JsonConsumer(objectMapperInstance);
+        when(request.getInputStream()).thenReturn(from("{\"name\":\"Fletch\", \"age\":\"44\", \"alias\":\"Babar\"}"));
+        assertThat(consumer.unmarshall(request, Entity.class).getName()).isEqualTo("Fletch");
+    }
+    
+    @Test
+    public void unmarshallElements() throws Exception {
+        final JsonConsumer consumer = new JsonConsumer();
+        when(request.getInputStream()).thenReturn(from("[{\"name\":\"Fletch\", \"age\":44}, {\"name\":\"Babar\", \"age\":33}]"));
+        final Iterator<Entity> entities = consumer.unmarshallElements(request, Entity.class);
+        assertThat(entities.hasNext()).isTrue();
+        assertThat(entities.hasNext()).isTrue();
+        assertThat(entities.next().getName()).isEqualTo("Fletch");
+        assertThat(entities.next().getName()).isEqualTo("Babar");
+        assertThat(entities.hasNext()).isFalse();
+    }
+    
+    @Test
+    public void unmarshallElementsFromEmptyArray() throws Exception {
+        when(request.getInputStream()).thenReturn(from("[]"));
+        assertThat(new JsonConsumer().unmarshallElements(request, Entity.class).hasNext()).isFalse();
+    }
+    
+    @Test
+    public void unmarshallElementsFromSingleObject() throws Exception {
+        when(request.getInputStream()).thenReturn(from("{\"name\":\"Fletch\", \"age\":44}"));
+        final Iterator<Entity> entities = new JsonConsumer().unmarshallElements(request, Entity.class);
+        assertThat(entities.next().getAge()).isEqualTo(44);
+        assertThat(entities.hasNext()).isFalse();
+    }
+    
     private ServletInputStream from(final String json) {
         final ByteArrayInputStream ba = new ByteArrayInputStream(json.getBytes());
         return new ServletInputStream() {
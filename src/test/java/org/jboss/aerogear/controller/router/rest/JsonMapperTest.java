@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.enterprise.inject.Instance;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.junit.Test;
+
+public class JsonMapperTest {
+
+    @Test
+    public void readersAndWritersAreCachedPerType() {
+        final JsonMapper jsonMapper = new JsonMapper(new ObjectMapper());
+        assertThat(jsonMapper.readerFor(Entity.class)).isSameAs(jsonMapper.readerFor(Entity.class));
+        assertThat(jsonMapper.writerFor(Entity.class)).isSameAs(jsonMapper.writerFor(Entity.class));
+        assertThat(jsonMapper.readerFor(Entity.class)).isNotSameAs(jsonMapper.readerFor(String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void defaultMapperIsUsedWhenNoObjectMapperIsProvided() {
+        final Instance<ObjectMapper> instance = mock(Instance.class);
+        when(instance.isUnsatisfied()).thenReturn(true);
+        assertThat(JsonMapper.of(instance)).isSameAs(JsonMapper.defaultMapper());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void providedObjectMapperIsUsed() {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Instance<ObjectMapper> instance = mock(Instance.class);
+        when(instance.isUnsatisfied()).thenReturn(false);
+        when(instance.get()).thenReturn(objectMapper);
+        assertThat(JsonMapper.of(instance).getObjectMapper()).isSameAs(objectMapper);
+    }
+
+    @Test
+    public void mapperForOtherFormatSharesConfiguration() {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        final JsonMapper jsonMapper = new JsonMapper(objectMapper).createMapper(new JsonFactory());
+        assertThat(jsonMapper.getObjectMapper()).isNotSameAs(objectMapper);
+        assertThat(jsonMapper.getObjectMapper().getDeserializationConfig().isEnabled(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+        assertThat(jsonMapper.getObjectMapper().getSerializerProvider()).isSameAs(objectMapper.getSerializerProvider());
+    }
+
+    @Test
+    public void smileMapperIsResolvedOnce() {
+        final JsonMapper jsonMapper = new JsonMapper(new ObjectMapper());
+        assertThat(jsonMapper.smileMapper()).isNotNull();
+        assertThat(jsonMapper.smileMapper()).isSameAs(jsonMapper.smileMapper());
+        assertThat(jsonMapper.smileMapper().getObjectMapper().getJsonFactory()).isInstanceOf(SmileFactory.class);
+    }
+
+}
@@ -18,15 +18,31 @@
 package org.jboss.aerogear.controller.router.rest;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
@@ -36,6 +52,8 @@ import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class JsonResponderTest {
     
@@ -83,4 +101,177 @@ public class JsonResponderTest {
         verify(response).setContentType(MediaType.JSON.toString());
     }
 
+    @Test
+    public void respondWithByteOutput() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream(body));
+        
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(1024)).respond(new Entity("Larry", 38), routeContext);
+        verify(response, never()).getWriter();
+        verify(response).setContentLength(25);
+        assertThat(body.toString("UTF-8")).isEqualTo("{\"name\":\"Larry\",\"age\":38}");
+    }
+    
+    @Test
+    public void respondWithByteOutputLargerThanBuffer() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream(body));
+        
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(8)).respond(new Entity("Larry", 38), routeContext);
+        verify(response, never()).setContentLength(anyInt());
+        assertThat(body.toString("UTF-8")).isEqualTo("{\"name\":\"Larry\",\"age\":38}");
+    }
+    
+    @Test
+    public void respondWithByteOutputSharingLargerBuffer() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream(body));
+        
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(1024)).respond(new Entity("Larry", 38), routeContext);
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(8)).respond(new Entity("Larry", 38), routeContext);
+        verify(response, times(1)).setContentLength(25);
+        assertThat(body.toString("UTF-8")).isEqualTo("{\"name\":\"Larry\",\"age\":38}{\"name\":\"Larry\",\"age\":38}");
+    }
+    
+    @Test
+    public void respondWithIterator() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        
+        new JsonResponder().respond(Arrays.asList(new Entity("Larry", 38), null, new Entity("Moe", 40)).iterator(), routeContext);
+        assertThat(stringWriter.toString()).isEqualTo("[{\"name\":\"Larry\",\"age\":38},null,{\"name\":\"Moe\",\"age\":40}]");
+        verify(response).setContentType(MediaType.JSON.toString());
+    }
+    
+    @Test
+    public void respondWithObjectNode() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        final ObjectNode node = new ObjectMapper().createObjectNode();
+        node.put("a", 1);
+        
+        new JsonResponder().respond(node, routeContext);
+        assertThat(stringWriter.toString()).isEqualTo("{\"a\":1}");
+    }
+    
+    @Test
+    public void respondWithArrayNodeAndByteOutput() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream(body));
+        final ArrayNode node = new ObjectMapper().createArrayNode();
+        node.add(1);
+        node.add("b");
+        
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(1024)).respond(node, routeContext);
+        assertThat(body.toString("UTF-8")).isEqualTo("[1,\"b\"]");
+        verify(response).setContentLength(7);
+    }
+    
+    @Test
+    public void respondWithClosableIterableAndByteOutput() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream(body));
+        final Cursor cursor = new Cursor(JsonResponder.FLUSH_INTERVAL + 1);
+        
+        new JsonResponder(JsonMapper.defaultMapper(), JsonOutputConfig.enableByteOutput(1024)).respond(cursor, routeContext);
+        assertThat(cursor.closed).isTrue();
+        assertThat(body.toString("UTF-8")).startsWith("[0,1,2,").endsWith("," + JsonResponder.FLUSH_INTERVAL + "]");
+        verify(response, never()).setContentLength(anyInt());
+        verify(response, times(2)).flushBuffer();
+    }
+    
+    @Test
+    public void streamIsFlushedEveryIntervalWithoutFlushAfterWriteValue() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE, false);
+        assertFlushedAtInterval(new JsonMapper(objectMapper));
+    }
+    
+    @Test
+    public void streamElementsAreBufferedBetweenFlushes() throws Exception {
+        assertFlushedAtInterval(JsonMapper.defaultMapper());
+    }
+    
+    private void assertFlushedAtInterval(final JsonMapper jsonMapper) throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final int[] writes = new int[1];
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                body.write(b);
+            }
+            
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                writes[0]++;
+                body.write(bytes, offset, length);
+            }
+        });
+        final List<String> flushed = new ArrayList<String>();
+        final List<Integer> writesAtFlush = new ArrayList<Integer>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                flushed.add(body.toString("UTF-8"));
+                writesAtFlush.add(writes[0]);
+                return null;
+            }
+        }).when(response).flushBuffer();
+        
+        new JsonResponder(jsonMapper, JsonOutputConfig.enableByteOutput(1024)).respond(new Cursor(JsonResponder.FLUSH_INTERVAL + 1), routeContext);
+        assertThat(flushed).hasSize(2);
+        assertThat(flushed.get(0)).startsWith("[0,1,2,").endsWith("," + (JsonResponder.FLUSH_INTERVAL - 1));
+        assertThat(writesAtFlush.get(0)).isLessThanOrEqualTo(2);
+    }
+    
+    @Test (expected = IllegalArgumentException.class)
+    public void byteOutputRequiresBuffer() {
+        JsonOutputConfig.enableByteOutput(0);
+    }
+    
+    private ServletOutputStream outputStream(final ByteArrayOutputStream body) {
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                body.write(b);
+            }
+        };
+    }
+
+    private static class Cursor implements Iterable<Integer>, Closeable {
+        private final int size;
+        private boolean closed;
+        
+        private Cursor(final int size) {
+            this.size = size;
+        }
+        
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int next;
+                
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+                
+                @Override
+                public Integer next() {
+                    return next++;
+                }
+                
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SmileConsumerTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private Route route;
+    @Mock
+    private Routes routes;
+    @InjectMocks
+    private RouteContext routeContext;
+    private ByteArrayOutputStream body;
+
+    @Before
+    public void setup() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                body.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void mediaType() {
+        assertThat(new SmileConsumer().mediaType()).isEqualTo(MediaType.SMILE.toString());
+    }
+
+    @Test
+    public void respondersAcceptSmile() {
+        assertThat(new SmileResponder().accepts(MediaType.SMILE.toString())).isTrue();
+        assertThat(new SmileResponder().accepts(MediaType.JSON.toString())).isFalse();
+        assertThat(new SmileResponder().mediaType()).isEqualTo(MediaType.SMILE.toString());
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        new SmileResponder().respond(new Entity("Fletch", 44), routeContext);
+        verify(response).setContentType(MediaType.SMILE.toString());
+        assertThat(body.toByteArray()[0]).isEqualTo((byte) ':');
+        
+        when(request.getInputStream()).thenReturn(from(body.toByteArray()));
+        final Entity entity = new SmileConsumer().unmarshall(request, Entity.class);
+        assertThat(entity.getName()).isEqualTo("Fletch");
+        assertThat(entity.getAge()).isEqualTo(44);
+    }
+
+    @Test
+    public void streamedRoundTrip() throws Exception {
+        new SmileResponder().respond(entities(3).iterator(), routeContext);
+        
+        when(request.getInputStream()).thenReturn(from(body.toByteArray()));
+        final Iterator<Entity> entities = new SmileConsumer().unmarshallElements(request, Entity.class);
+        final List<String> names = new ArrayList<String>();
+        while (entities.hasNext()) {
+            names.add(entities.next().getName());
+        }
+        assertThat(names).isEqualTo(Arrays.asList("name0", "name1", "name2"));
+    }
+
+    @Test
+    public void smileIsSmallerThanJson() throws Exception {
+        final List<Entity> entities = entities(100);
+        new SmileResponder().respond(entities, routeContext);
+        final byte[] json = JsonMapper.defaultMapper().writerFor(entities.getClass()).writeValueAsBytes(entities);
+        assertThat(body.size()).isLessThan(json.length);
+    }
+
+    private static List<Entity> entities(final int count) {
+        final List<Entity> entities = new ArrayList<Entity>();
+        for (int i = 0; i < count; i++) {
+            entities.add(new Entity("name" + i, i));
+        }
+        return entities;
+    }
+
+    private static ServletInputStream from(final byte[] bytes) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        return new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+        };
+    }
+
+}
@@ -20,6 +20,8 @@ package org.jboss.aerogear.controller.util;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 
@@ -92,4 +94,21 @@ public class RequestUtilsTest {
         assertThat(RequestUtils.extractAcceptHeader(request)).contains(MediaType.JSON.toString(), "application/xml");
     }
     
+    @Test
+    public void extractAcceptsHeaderWithQualities() {
+        when(request.getHeader("Accept")).thenReturn("application/xml;q=0.5, application/json;charset=UTF-8, text/html;q=0");
+        assertThat(new ArrayList<String>(RequestUtils.extractAcceptHeader(request))).containsExactly(MediaType.JSON.toString(), "application/xml");
+    }
+    
+    @Test
+    public void extractContentType() {
+        when(request.getContentType()).thenReturn("Application/JSON; charset=UTF-8");
+        assertThat(RequestUtils.extractContentType(request)).isEqualTo(MediaType.JSON.toString());
+    }
+    
+    @Test
+    public void extractContentTypeMissing() {
+        assertThat(RequestUtils.extractContentType(request)).isNull();
+    }
+    
 }